@@ -0,0 +1,19 @@
+package com.wiremock.ui.benchmark;
+
+import java.lang.reflect.Field;
+
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    /** Sets a field normally injected from configuration with {@code @Value}. */
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
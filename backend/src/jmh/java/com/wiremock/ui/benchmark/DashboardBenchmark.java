@@ -0,0 +1,78 @@
+package com.wiremock.ui.benchmark;
+
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.wiremock.ui.extension.RequestStatsListener;
+import com.wiremock.ui.model.DashboardStats;
+import com.wiremock.ui.repository.GraphQLStubRepository;
+import com.wiremock.ui.repository.SoapStubRepository;
+import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.service.DashboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard polling after a large number of served requests. The cost should not grow
+ * with the journal size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DashboardBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int journalSize;
+
+    private DashboardService dashboardService;
+
+    @Setup
+    public void setUp() {
+        RequestStatsListener requestStats = new RequestStatsListener();
+        ServeEvent[] events = {
+            ServeEvent.ofUnmatched(LoggedRequest.createFrom(new ImmutableRequest.Builder()
+                .withAbsoluteUrl("http://localhost:8082/api/orders").withMethod(RequestMethod.GET).build()),
+                ResponseDefinition.notConfigured()),
+            ServeEvent.ofUnmatched(LoggedRequest.createFrom(new ImmutableRequest.Builder()
+                .withAbsoluteUrl("http://localhost:8082/api/orders").withMethod(RequestMethod.POST).build()),
+                ResponseDefinition.okEmptyJson()),
+        };
+        for (int i = 0; i < journalSize; i++) {
+            requestStats.afterComplete(events[i % events.length], null);
+        }
+
+        dashboardService = new DashboardService(
+            repository(StubRepository.class, 5_000),
+            repository(GraphQLStubRepository.class, 500),
+            repository(SoapStubRepository.class, 500),
+            requestStats);
+        BenchmarkSupport.setField(dashboardService, "countTtlMs", 30_000L);
+    }
+
+    @Benchmark
+    public DashboardStats getDashboardStats() {
+        return dashboardService.getDashboardStats();
+    }
+
+    /** A repository whose count queries all return {@code count}. */
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, long count) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("count")) {
+                return count;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.wiremock.ui.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.wiremock.ui.extension.IndexedStubMappingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+
+/**
+ * End-to-end request matching against a WireMock server holding many mappings.
+ * Requests go over loopback HTTP so the numbers include everything a client sees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestMatchingBenchmark {
+
+    @Param({"1000", "10000", "100000", "500000"})
+    public int mappings;
+
+    /** {@code indexed} uses the application's stub index, {@code linear} WireMock's default store. */
+    @Param({"indexed", "linear"})
+    public String store;
+
+    private WireMockServer server;
+    private HttpClient client;
+    private HttpRequest firstRegistered;
+    private HttpRequest lastRegistered;
+    private HttpRequest unmatched;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        WireMockConfiguration config = WireMockConfiguration.options()
+            .dynamicPort()
+            .disableRequestJournal();
+        if ("indexed".equals(store)) {
+            StubMappingStore stubStore = new IndexedStubMappingStore();
+            config.withStores(new DefaultStores(config.filesRoot()) {
+                @Override
+                public StubMappingStore getStubStore() {
+                    return stubStore;
+                }
+            });
+        }
+        server = new WireMockServer(config);
+        server.start();
+        for (int i = 0; i < mappings; i++) {
+            server.addStubMapping(get(urlEqualTo("/bench/item/" + i))
+                .willReturn(aResponse().withStatus(200).withBody("item " + i))
+                .build());
+        }
+        // Catch-all so unmatched requests measure a full scan rather than a 404 fast path
+        server.addStubMapping(WireMock.any(WireMock.anyUrl()).atPriority(10)
+            .willReturn(aResponse().withStatus(404))
+            .build());
+
+        client = HttpClient.newHttpClient();
+        firstRegistered = request("/bench/item/0");
+        lastRegistered = request("/bench/item/" + (mappings - 1));
+        unmatched = request("/bench/missing");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int matchFirstRegistered() throws Exception {
+        return client.send(firstRegistered, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int matchLastRegistered() throws Exception {
+        return client.send(lastRegistered, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int matchNone() throws Exception {
+        return client.send(unmatched, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path)).GET().build();
+    }
+}
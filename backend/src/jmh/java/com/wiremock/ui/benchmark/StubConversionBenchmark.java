@@ -0,0 +1,115 @@
+package com.wiremock.ui.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.config.JacksonConfig;
+import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.service.CompiledStub;
+import com.wiremock.ui.service.CompiledStubCache;
+import com.wiremock.ui.service.StubService;
+import com.wiremock.ui.service.StubWriteBehindService;
+import com.wiremock.ui.util.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stub conversion hot paths: parsing stored JSON (including the double-encoded form
+ * older clients send), building the WireMock mapping, and {@link JsonUtils#toJsonNode(Object)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StubConversionBenchmark {
+    private static final String REQUEST = "{\"method\":\"POST\",\"urlPath\":\"/api/orders\","
+        + "\"headers\":{\"Content-Type\":{\"equalTo\":\"application/json\"}},"
+        + "\"queryParameters\":{\"tenant\":{\"equalTo\":\"acme\"}},"
+        + "\"bodyPatterns\":[{\"matchesJsonPath\":\"$.items[?(@.qty > 0)]\"}]}";
+    private static final String RESPONSE = "{\"status\":201,\"headers\":{\"Content-Type\":\"application/json\"},"
+        + "\"jsonBody\":{\"id\":\"{{randomValue type='UUID'}}\",\"status\":\"CREATED\","
+        + "\"items\":[{\"sku\":\"A-1\",\"qty\":2},{\"sku\":\"B-7\",\"qty\":1}]},"
+        + "\"transformers\":[\"response-template\"]}";
+
+    /** {@code plain} stores JSON as-is; {@code double} stores it as a JSON string of JSON. */
+    @Param({"plain", "double"})
+    public String encoding;
+
+    private ObjectMapper objectMapper;
+    private StubService stubService;
+    private JsonUtils jsonUtils;
+    private Stub uncachedStub;
+    private Stub cachedStub;
+    private Map<String, Object> requestMap;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+        CompiledStubCache cache = new CompiledStubCache();
+        BenchmarkSupport.setField(cache, "maxEntries", 200_000);
+        // Conversion never touches the repositories or the server; write-behind stays disabled
+        stubService = new StubService(null, null, objectMapper, cache, new StubWriteBehindService(null, objectMapper));
+        jsonUtils = new JsonUtils(objectMapper);
+
+        String request = "double".equals(encoding) ? objectMapper.writeValueAsString(REQUEST) : REQUEST;
+        String response = "double".equals(encoding) ? objectMapper.writeValueAsString(RESPONSE) : RESPONSE;
+
+        // Stubs without an id are never cached, so every call parses and builds from scratch
+        uncachedStub = newStub(null, request, response);
+        cachedStub = newStub("65f0c0ffee0000000000beef", request, response);
+        stubService.toStubMapping(cachedStub);
+
+        requestMap = objectMapper.readValue(REQUEST, Map.class);
+    }
+
+    @Benchmark
+    public CompiledStub compileStub() {
+        return stubService.compileDetached(uncachedStub);
+    }
+
+    @Benchmark
+    public StubMapping toStubMappingUncached() {
+        return stubService.toStubMapping(uncachedStub);
+    }
+
+    @Benchmark
+    public StubMapping toStubMappingCached() {
+        return stubService.toStubMapping(cachedStub);
+    }
+
+    @Benchmark
+    public JsonNode jsonUtilsToJsonNodeFromMap() {
+        return jsonUtils.toJsonNode(requestMap);
+    }
+
+    @Benchmark
+    public JsonNode jsonUtilsToJsonNodeFromStub() {
+        return jsonUtils.toJsonNode(uncachedStub);
+    }
+
+    @Benchmark
+    public List<JsonNode> parseRequestAndResponse() throws Exception {
+        return List.of(objectMapper.readTree(uncachedStub.getRequest()), objectMapper.readTree(uncachedStub.getResponse()));
+    }
+
+    private static Stub newStub(String id, String request, String response) {
+        Stub stub = new Stub();
+        stub.setId(id);
+        stub.setName("Create order");
+        stub.setRequest(request);
+        stub.setResponse(response);
+        stub.setPriority(5);
+        stub.setMetadata("{\"team\":\"orders\"}");
+        return stub;
+    }
+}
@@ -2,8 +2,12 @@ package com.wiremock.ui;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// MongoConfiguration creates the client, and only when stubs are stored in MongoDB
+@SpringBootApplication(exclude = MongoAutoConfiguration.class)
+@EnableScheduling
 public class WireMockUiApplication {
     public static void main(String[] args) {
         SpringApplication.run(WireMockUiApplication.class, args);
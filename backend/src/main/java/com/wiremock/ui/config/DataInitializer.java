@@ -1,45 +1,101 @@
 package com.wiremock.ui.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.MongoTransactionException;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.query.Query;
 
 import com.mongodb.MongoTimeoutException;
 import com.mongodb.MongoException;
+import com.wiremock.ui.model.GraphQLStub;
+import com.wiremock.ui.model.SoapStub;
 import com.wiremock.ui.model.Stub;
 import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.service.MappingSnapshotService;
+import com.wiremock.ui.service.StubRehydrationService;
+import com.wiremock.ui.service.StubSyncService;
+import com.wiremock.ui.service.StubWriteBehindService;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Configuration
 public class DataInitializer {
 
+    // Single-field indexes earlier versions declared; the hit sorts are served by the
+    // compound indexes with _id
+    private static final Map<Class<?>, List<String>> OBSOLETE_INDEXES = Map.of(
+        Stub.class, List.of("hitCount", "lastHitAt"));
+
     @Bean
-    public CommandLineRunner initializeData(MongoTemplate mongoTemplate, StubRepository stubRepository) {
+    public CommandLineRunner initializeData(ObjectProvider<MongoTemplate> mongoTemplates, StubRepository stubRepository,
+                                            StubRehydrationService rehydrationService,
+                                            StubWriteBehindService writeBehindService,
+                                            ObjectProvider<StubSyncService> stubSyncServices,
+                                            MappingSnapshotService snapshotService) {
         return args -> {
+            // Serve the mappings from the last snapshot straight away; the stub store corrects them below
+            boolean restored = snapshotService.restore();
+            if (restored) {
+                rehydrationService.ensureStarted();
+            }
             try {
                 log.info("Initializing database...");
                 
-                // Check MongoDB connection first
-                try {
-                    mongoTemplate.getDb().runCommand(new org.bson.Document("ping", 1));
-                    log.info("MongoDB connection successful");
-                } catch (MongoTimeoutException e) {
-                    log.error("MongoDB connection timeout. Is MongoDB running?", e);
-                    return;
-                } catch (MongoException e) {
-                    log.error("MongoDB error: {}", e.getMessage(), e);
-                    return;
+                // Only MongoDB needs preparing; the embedded file store has loaded its log already
+                MongoTemplate mongoTemplate = mongoTemplates.getIfAvailable();
+                if (mongoTemplate != null) {
+                    // Check MongoDB connection first
+                    try {
+                        mongoTemplate.getDb().runCommand(new org.bson.Document("ping", 1));
+                        log.info("MongoDB connection successful");
+                    } catch (MongoTimeoutException e) {
+                        log.error("MongoDB connection timeout. Is MongoDB running?", e);
+                        rehydrationService.ensureStarted();
+                        return;
+                    } catch (MongoException e) {
+                        log.error("MongoDB error: {}", e.getMessage(), e);
+                        rehydrationService.ensureStarted();
+                        return;
+                    }
+                
+                    // Check if the collection exists and create it if it doesn't
+                    if (!mongoTemplate.collectionExists(Stub.class)) {
+                        log.info("Creating 'stubs' collection in MongoDB");
+                        mongoTemplate.createCollection(Stub.class);
+                    }
+                
+                    // Create the indexes declared on the models; auto index creation is off for our MongoTemplate
+                    IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(
+                        (MongoMappingContext) mongoTemplate.getConverter().getMappingContext());
+                    for (Class<?> type : List.of(Stub.class, GraphQLStub.class, SoapStub.class)) {
+                        IndexOperations indexOperations = mongoTemplate.indexOps(type);
+                        indexResolver.resolveIndexFor(type).forEach(indexOperations::ensureIndex);
+                        Set<String> existing = indexOperations.getIndexInfo().stream()
+                            .map(IndexInfo::getName)
+                            .collect(Collectors.toSet());
+                        OBSOLETE_INDEXES.getOrDefault(type, List.of()).stream()
+                            .filter(existing::contains)
+                            .forEach(indexOperations::dropIndex);
+                    }
                 }
                 
-                // Check if the collection exists and create it if it doesn't
-                if (!mongoTemplate.collectionExists(Stub.class)) {
-                    log.info("Creating 'stubs' collection in MongoDB");
-                    mongoTemplate.createCollection(Stub.class);
+                // Stub edits left in the write-behind outbox by the last run go in before loading
+                if (!writeBehindService.awaitCommitted(60_000)) {
+                    log.warn("Stub outbox not fully committed to MongoDB; some recent edits load later");
                 }
                 
                 // Check if we have any data
@@ -60,8 +116,20 @@ public class DataInitializer {
                     stubRepository.save(stub);
                     log.info("Sample stub created successfully with ID: {}", stub.getId());
                 }
+                
+                // Re-register persisted stubs with WireMock before opening the mock port, then
+                // follow changes made by other nodes from the point loading started
+                stubSyncServices.ifAvailable(StubSyncService::markStart);
+                if (restored) {
+                    // Sync starts after the reload so changes since markStart land on top of it
+                    rehydrationService.reconcileInBackground(() -> stubSyncServices.ifAvailable(StubSyncService::start));
+                } else {
+                    rehydrationService.rehydrate();
+                    stubSyncServices.ifAvailable(StubSyncService::start);
+                }
             } catch (Exception e) {
                 log.error("Error initializing database: {}", e.getMessage(), e);
+                rehydrationService.ensureStarted();
             }
         };
     }
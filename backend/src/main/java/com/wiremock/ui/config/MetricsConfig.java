@@ -0,0 +1,38 @@
+package com.wiremock.ui.config;
+
+import com.wiremock.ui.journal.RequestJournalStore;
+import com.wiremock.ui.service.StubWriteBehindService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics beyond what Actuator records on its own (HTTP requests, Mongo commands,
+ * repository calls, JVM). Everything is scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Times {@code @Timed} service classes. */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder journalMetrics(RequestJournalStore journalStore) {
+        return registry -> Gauge.builder("wiremock.journal.entries", journalStore, RequestJournalStore::size)
+            .description("Requests held in the request journal")
+            .register(registry);
+    }
+
+    @Bean
+    public MeterBinder stubOutboxMetrics(StubWriteBehindService writeBehindService) {
+        return registry -> Gauge.builder("wiremock.ui.outbox.backlog", writeBehindService, StubWriteBehindService::backlog)
+            .description("Stub mutations waiting to be committed to MongoDB")
+            .register(registry);
+    }
+}
@@ -1,20 +1,25 @@
 package com.wiremock.ui.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Configuration
-@EnableMongoRepositories(basePackages = "com.wiremock.ui.repository")
 public class MongoConfiguration {
 
     @Value("${spring.data.mongodb.host:localhost}")
@@ -26,16 +31,26 @@ public class MongoConfiguration {
     @Value("${spring.data.mongodb.database:wiremockui}")
     private String database;
 
+    // With the file backend no client is created, so nothing connects to MongoDB
     @Bean
-    public MongoClient mongoClient() {
+    @ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+    public MongoClient mongoClient(ObjectProvider<MongoMetricsCommandListener> commandListener,
+                                   ObjectProvider<MongoMetricsConnectionPoolListener> connectionPoolListener) {
         String connectionString = "mongodb://" + host + ":" + port;
         log.info("Connecting to MongoDB at: {}", connectionString);
-        return MongoClients.create(connectionString);
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+            .applyConnectionString(new ConnectionString(connectionString));
+        // Actuator's command timers and pool gauges only attach to clients it builds itself
+        commandListener.ifAvailable(settings::addCommandListener);
+        connectionPoolListener.ifAvailable(listener ->
+            settings.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener)));
+        return MongoClients.create(settings.build());
     }
     
     @Bean
-    public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(mongoClient(), database);
+    @ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+    public MongoTemplate mongoTemplate(MongoClient mongoClient) {
+        return new MongoTemplate(mongoClient, database);
     }
 
     @Bean
@@ -15,7 +15,8 @@ public class StringOrJsonNodeDeserializer extends JsonDeserializer<JsonNode> {
     @Override
     public JsonNode deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
         try {
-            JsonNode node = p.readValueAsTree();
+            // Read with the plain mapper: going through the parser's codec would land back here
+            JsonNode node = objectMapper.readTree(p);
             return node;
         } catch (Exception e) {
             // If the value is a String, return it as a TextNode
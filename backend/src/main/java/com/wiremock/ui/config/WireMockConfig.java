@@ -1,7 +1,16 @@
 package com.wiremock.ui.config;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Extension;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.wiremock.ui.extension.IndexedStubMappingStore;
+import com.wiremock.ui.extension.MockHttpServerFactory;
+import com.wiremock.ui.extension.PercentileDelayDistribution;
+import com.wiremock.ui.extension.ServerThreadPoolFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,8 +32,34 @@ public class WireMockConfig {
     @Value("${wiremock.server.max-request-journal-entries}")
     private int maxRequestJournalEntries;
 
+    @Value("${wiremock.journal.max-body-bytes:65536}")
+    private int journalMaxBodyBytes;
+
+    @Value("${wiremock.recording.proxy-timeout-ms:300000}")
+    private int proxyTimeoutMs;
+
+    @Value("${wiremock.server.stub-index.enabled:true}")
+    private boolean stubIndexEnabled;
+
+    // 0 or -1 leave WireMock's and Jetty's defaults in place
+    @Value("${wiremock.server.threads.container-threads:0}")
+    private int containerThreads;
+
+    @Value("${wiremock.server.threads.acceptors:-1}")
+    private int acceptors;
+
+    @Value("${wiremock.server.threads.accept-queue-size:-1}")
+    private int acceptQueueSize;
+
+    @Value("${wiremock.server.threads.idle-timeout-ms:0}")
+    private long idleTimeoutMs;
+
     @Bean(destroyMethod = "stop")
-    public WireMockServer wireMockServer() {
+    public WireMockServer wireMockServer(ObjectProvider<Extension> extensions, ServerThreadPoolFactory threadPoolFactory) {
+        // WireMock reads and writes mappings with its own mapper, which only knows its built-in
+        // delay types. The mapper is inherited by threads started from here on, Jetty's included.
+        Json.getObjectMapper().registerSubtypes(PercentileDelayDistribution.class);
+
         WireMockConfiguration config = WireMockConfiguration.options()
             .port(port)
             .usingFilesUnderDirectory(rootDir);
@@ -38,9 +73,46 @@ public class WireMockConfig {
         } else {
             config.maxRequestJournalEntries(maxRequestJournalEntries);
         }
+        // Serve events, and WireMock's in-memory journal, only copy as much of a response body
+        // as the journal keeps; recording sessions capture whole bodies from the response itself
+        config.maxLoggedResponseSize(journalMaxBodyBytes);
+        // Recording sessions proxy through one pooled client WireMock shares across targets
+        config.proxyTimeout(proxyTimeoutMs);
+
+        config.threadPoolFactory(threadPoolFactory);
+        if (containerThreads > 0) {
+            config.containerThreads(containerThreads);
+        }
+        if (acceptors > 0) {
+            config.jettyAcceptors(acceptors);
+        }
+        if (acceptQueueSize > 0) {
+            config.jettyAcceptQueueSize(acceptQueueSize);
+        }
+        if (idleTimeoutMs > 0) {
+            config.jettyIdleTimeout(idleTimeoutMs);
+        }
+        // Delayed responses are then scheduled instead of sleeping on a request thread,
+        // and so are the chunks of a dribbled response
+        config.asynchronousResponseEnabled(threadPoolFactory.isAsyncResponses());
+        config.asynchronousResponseThreads(threadPoolFactory.getAsyncResponseThreads());
+        config.httpServerFactory(new MockHttpServerFactory());
+
+        if (stubIndexEnabled) {
+            // Match requests through a method/path index instead of scanning every mapping
+            StubMappingStore stubStore = new IndexedStubMappingStore();
+            config.withStores(new DefaultStores(config.filesRoot()) {
+                @Override
+                public StubMappingStore getStubStore() {
+                    return stubStore;
+                }
+            });
+        }
+
+        // Extension beans (serve event listeners etc.) must not depend on the server itself
+        config.extensions(extensions.orderedStream().toArray(Extension[]::new));
 
-        WireMockServer server = new WireMockServer(config);
-        server.start();
-        return server;
+        // The server is started by StubRehydrationService once persisted stubs are loaded
+        return new WireMockServer(config);
     }
 }
\ No newline at end of file
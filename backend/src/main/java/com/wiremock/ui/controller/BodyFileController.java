@@ -0,0 +1,77 @@
+package com.wiremock.ui.controller;
+
+import com.wiremock.ui.model.BodyFile;
+import com.wiremock.ui.service.BodyFileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uploads for large stub response bodies. The returned {@code bodyFileName} goes in a
+ * stub's response in place of an inline body.
+ */
+@RestController
+@RequestMapping("/api/body-files")
+@RequiredArgsConstructor
+public class BodyFileController {
+    private final BodyFileService bodyFileService;
+
+    @GetMapping
+    public ResponseEntity<List<BodyFile>> getAllBodyFiles() {
+        return ResponseEntity.ok(bodyFileService.getAllBodyFiles());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getBodyFile(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(bodyFileService.getBodyFile(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/content")
+    public ResponseEntity<?> getBodyFileContent(@PathVariable String id) {
+        try {
+            Resource content = new FileSystemResource(bodyFileService.getContent(id));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(content);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BodyFile> uploadBodyFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(bodyFileService.store(content));
+        }
+    }
+
+    /** Raw upload: the request body is streamed straight to disk. */
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<BodyFile> uploadRawBodyFile(InputStream content) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(bodyFileService.store(content));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteBodyFile(@PathVariable String id) {
+        try {
+            bodyFileService.deleteBodyFile(id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,21 +1,44 @@
 package com.wiremock.ui.controller;
 
+import com.wiremock.ui.extension.ServerThreadPoolFactory;
 import com.wiremock.ui.model.DashboardStats;
+import com.wiremock.ui.model.ServerThreadStats;
+import com.wiremock.ui.model.TimeSeriesWindow;
 import com.wiremock.ui.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/dashboard")
 @RequiredArgsConstructor
 public class DashboardController {
     private final DashboardService dashboardService;
+    private final ServerThreadPoolFactory serverThreadPool;
 
     @GetMapping("/stats")
     public ResponseEntity<DashboardStats> getDashboardStats() {
         return ResponseEntity.ok(dashboardService.getDashboardStats());
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<?> getTimeSeries(@RequestParam(required = false) String window) {
+        try {
+            List<TimeSeriesWindow> windows = dashboardService.getTimeSeries(window);
+            return ResponseEntity.ok(windows);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/server-threads")
+    public ResponseEntity<ServerThreadStats> getServerThreads() {
+        return ResponseEntity.ok(serverThreadPool.snapshot());
+    }
+}
\ No newline at end of file
@@ -5,6 +5,8 @@ import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.model.Stub;
 import com.wiremock.ui.repository.StubRepository;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -38,9 +40,10 @@ public class DirectWireMockController {
     }
     
     @GetMapping("/stubs")
-    public List<Map<String, Object>> getAllStubs() {
+    public Object getAllStubs(@ModelAttribute StubQuery query) {
         log.info("Getting all stubs via direct controller");
-        List<Stub> stubs = stubRepository.findAll();
+        StubPage<Stub> page = stubRepository.find(query);
+        List<Stub> stubs = page.getItems();
         log.info("Found {} stubs in the database", stubs.size());
         
         List<Map<String, Object>> result = new ArrayList<>();
@@ -83,7 +86,7 @@ public class DirectWireMockController {
             result.add(stubMap);
         }
         
-        return result;
+        return query.isPaged() ? new StubPage<>(result, page.getNextCursor()) : result;
     }
     
     @PostMapping("/stubs")
@@ -1,13 +1,13 @@
 package com.wiremock.ui.controller;
 
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.model.GraphQLStub;
 import com.wiremock.ui.service.GraphQLStubService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/graphql-stubs")
 @RequiredArgsConstructor
@@ -20,8 +20,9 @@ public class GraphQLStubController {
     }
 
     @GetMapping
-    public ResponseEntity<List<GraphQLStub>> getAllStubs() {
-        return ResponseEntity.ok(graphQLStubService.getAllStubs());
+    public ResponseEntity<?> getAllStubs(@ModelAttribute StubQuery query) {
+        StubPage<GraphQLStub> page = graphQLStubService.findStubs(query);
+        return query.isPaged() ? ResponseEntity.ok(page) : ResponseEntity.ok(page.getItems());
     }
 
     @GetMapping("/{id}")
@@ -1,12 +1,18 @@
 package com.wiremock.ui.controller;
 
+import com.wiremock.ui.dto.RecordingSessionRequest;
 import com.wiremock.ui.service.RecordingService;
+import com.wiremock.ui.model.RecordingSession;
 import com.wiremock.ui.model.RecordingStatus;
 import com.wiremock.ui.model.RecordingStatusResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/recording")
 public class RecordingController {
@@ -18,15 +24,19 @@ public class RecordingController {
     }
 
     @PostMapping("/start")
-    public ResponseEntity<Void> startRecording(@RequestParam String targetUrl) {
-        recordingService.startRecording(targetUrl);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> startRecording(@RequestParam String targetUrl) {
+        try {
+            recordingService.startRecording(targetUrl);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
-    @PostMapping("/stop")
-    public ResponseEntity<Void> stopRecording() {
+    @PostMapping(value = "/stop", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RecordingStatusResponse> stopRecording() {
         recordingService.stopRecording();
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(recordingService.getStatus());
     }
 
     @GetMapping(value = "/status", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -36,9 +46,13 @@ public class RecordingController {
     }
 
     @PostMapping("/playback/start")
-    public ResponseEntity<Void> startPlayback() {
-        recordingService.startPlayback();
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> startPlayback(@RequestParam(required = false) String recordingId) {
+        try {
+            recordingService.startPlayback(recordingId);
+            return ResponseEntity.ok().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping("/playback/stop")
@@ -46,4 +60,39 @@ public class RecordingController {
         recordingService.stopPlayback();
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    /** Recording sessions, newest first, including stopped ones not yet removed. */
+    @GetMapping(value = "/sessions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<RecordingSession>> getSessions() {
+        return ResponseEntity.ok(recordingService.getSessions());
+    }
+
+    @PostMapping(value = "/sessions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> startSession(@RequestBody RecordingSessionRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(recordingService.startSession(request));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/sessions/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RecordingSession> getSession(@PathVariable String id) {
+        return ResponseEntity.ok(recordingService.getSession(id));
+    }
+
+    @PostMapping(value = "/sessions/{id}/stop", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RecordingSession> stopSession(@PathVariable String id) {
+        return ResponseEntity.ok(recordingService.stopSession(id));
+    }
+
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<?> removeSession(@PathVariable String id) {
+        try {
+            recordingService.removeSession(id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
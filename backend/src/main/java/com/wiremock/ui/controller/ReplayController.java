@@ -0,0 +1,58 @@
+package com.wiremock.ui.controller;
+
+import com.wiremock.ui.dto.ReplayRunRequest;
+import com.wiremock.ui.model.ReplayReport;
+import com.wiremock.ui.service.ReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays captured traffic and reports throughput and latency while it runs.
+ */
+@RestController
+@RequestMapping("/api/replay/runs")
+@RequiredArgsConstructor
+public class ReplayController {
+    private final ReplayService replayService;
+
+    @GetMapping
+    public ResponseEntity<List<ReplayReport>> getRuns() {
+        return ResponseEntity.ok(replayService.getRuns());
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> startRun(@RequestBody ReplayRunRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(replayService.start(request));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** NDJSON traffic in the request body, streamed while it is parsed; options as query parameters. */
+    @PostMapping(consumes = "application/x-ndjson")
+    public ResponseEntity<?> startUploadedRun(InputStream content, @ModelAttribute ReplayRunRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(replayService.startUpload(content, request));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReplayReport> getRun(@PathVariable String id) {
+        return ResponseEntity.ok(replayService.getRun(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<ReplayReport> cancelRun(@PathVariable String id) {
+        return ResponseEntity.ok(replayService.cancel(id));
+    }
+}
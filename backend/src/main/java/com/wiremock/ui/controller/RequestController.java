@@ -1,30 +1,55 @@
 package com.wiremock.ui.controller;
 
-import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+import com.wiremock.ui.service.RequestJournalService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/requests")
 @RequiredArgsConstructor
 public class RequestController {
-    private final WireMockServer wireMockServer;
+    private final RequestJournalService requestJournalService;
 
     @GetMapping
-    public ResponseEntity<List<LoggedRequest>> getRequests() {
-        return ResponseEntity.ok(wireMockServer.getAllServeEvents()
-            .stream()
-            .map(event -> event.getRequest())
-            .toList());
+    public ResponseEntity<?> getRequests(@ModelAttribute RequestQuery query) {
+        try {
+            return ResponseEntity.ok(requestJournalService.findRequests(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams requests as they are served. Takes the same filters as the listing;
+     * {@code overflow} picks what happens when this client falls behind.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamRequests(@ModelAttribute RequestQuery query,
+                                            @RequestParam(required = false) String overflow) {
+        try {
+            return ResponseEntity.ok(requestJournalService.streamRequests(query, overflow));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JournalEntry> getRequest(@PathVariable String id) {
+        return ResponseEntity.ok(requestJournalService.getRequest(id));
     }
 
     @DeleteMapping
     public ResponseEntity<Void> clearRequests() {
-        wireMockServer.resetRequests();
+        requestJournalService.clearRequests();
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,11 @@ import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.model.Stub;
 import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.service.CompiledStubCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +18,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -27,6 +29,7 @@ public class SimplifiedStubController {
     private final StubRepository stubRepository;
     private final WireMockServer wireMockServer;
     private final ObjectMapper objectMapper;
+    private final CompiledStubCache compiledStubCache;
 
     @PostMapping
     public ResponseEntity<Map<String, Object>> createStub(@RequestBody Map<String, Object> request) {
@@ -124,8 +127,9 @@ public class SimplifiedStubController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Stub>> getAllStubs() {
-        return ResponseEntity.ok(stubRepository.findAll());
+    public ResponseEntity<?> getAllStubs(@ModelAttribute StubQuery query) {
+        StubPage<Stub> page = stubRepository.find(query);
+        return query.isPaged() ? ResponseEntity.ok(page) : ResponseEntity.ok(page.getItems());
     }
     
     @DeleteMapping("/{id}")
@@ -149,6 +153,7 @@ public class SimplifiedStubController {
             }
             
             stubRepository.delete(stub);
+            compiledStubCache.invalidate(id);
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
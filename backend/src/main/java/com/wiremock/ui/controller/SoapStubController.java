@@ -1,12 +1,13 @@
 package com.wiremock.ui.controller;
 
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.model.SoapStub;
 import com.wiremock.ui.service.SoapStubService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,8 +27,14 @@ public class SoapStubController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SoapStub>> getAllStubs() {
-        return ResponseEntity.ok(soapStubService.getAllStubs());
+    public ResponseEntity<?> getAllStubs(@ModelAttribute StubQuery query) {
+        try {
+            StubPage<SoapStub> page = soapStubService.findStubs(query);
+            return query.isPaged() ? ResponseEntity.ok(page) : ResponseEntity.ok(page.getItems());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
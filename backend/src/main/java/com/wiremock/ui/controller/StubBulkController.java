@@ -0,0 +1,66 @@
+package com.wiremock.ui.controller;
+
+import com.wiremock.ui.service.StubBulkService;
+import com.wiremock.ui.service.StubBulkService.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class StubBulkController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final StubBulkService stubBulkService;
+
+    @PostMapping("/api/stubs/bulk")
+    public ResponseEntity<?> importStubs(HttpServletRequest request,
+                                         @RequestParam(required = false) String format,
+                                         @RequestParam(required = false) Integer chunkSize) {
+        try {
+            Format importFormat = resolveFormat(format, request.getContentType());
+            return ResponseEntity.ok(stubBulkService.importStubs(request.getInputStream(), importFormat, chunkSize));
+        } catch (Exception e) {
+            log.error("Bulk import failed: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping({"/api/stubs/bulk", "/api/export/stubs"})
+    public ResponseEntity<?> exportStubs(@RequestParam(required = false) String format,
+                                         @RequestHeader(value = "Accept", required = false) String accept) {
+        Format exportFormat;
+        try {
+            exportFormat = resolveFormat(format, accept);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        MediaType contentType = exportFormat == Format.NDJSON
+            ? MediaType.parseMediaType(NDJSON)
+            : MediaType.APPLICATION_JSON;
+        StreamingResponseBody body = out -> stubBulkService.exportStubs(out, exportFormat);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private Format resolveFormat(String format, String mediaType) {
+        if (format != null) {
+            try {
+                return Format.valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format '" + format + "'; expected one of "
+                    + Arrays.toString(Format.values()).toLowerCase(Locale.ROOT));
+            }
+        }
+        return mediaType != null && mediaType.contains(NDJSON) ? Format.NDJSON : Format.JSON;
+    }
+}
@@ -1,22 +1,23 @@
 package com.wiremock.ui.controller;
 
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.dto.StubRequest;
 import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.service.CompiledStub;
+import com.wiremock.ui.service.StubHitService;
 import com.wiremock.ui.service.StubService;
+import com.wiremock.ui.service.StubWriteBehindService;
 import com.wiremock.ui.util.JsonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -24,12 +25,20 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class StubController {
     private final StubService stubService;
+    private final StubHitService stubHitService;
     private final JsonUtils jsonUtils;
     private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<Stub> createStub(@RequestBody StubRequest stubRequest) {
+    public ResponseEntity<?> createStub(@RequestBody StubRequest stubRequest,
+                                        @RequestParam(required = false) String ack) {
         log.info("Creating stub: {}", stubRequest.getName());
+        StubWriteBehindService.Ack ackLevel;
+        try {
+            ackLevel = StubWriteBehindService.Ack.parse(ack);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         
         // Convert to Stub entity
         Stub stub = new Stub();
@@ -65,61 +74,52 @@ public class StubController {
             stub.setMetadata("{}");
         }
         
-        return ResponseEntity.ok(stubService.createStub(stub));
+        return ResponseEntity.ok(stubService.createStub(stub, ackLevel));
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllStubs() {
-        List<Stub> stubs = stubService.getAllStubs();
-        List<Map<String, Object>> result = new ArrayList<>();
-        
-        for (Stub stub : stubs) {
-            Map<String, Object> stubMap = new HashMap<>();
-            stubMap.put("id", stub.getId());
-            stubMap.put("name", stub.getName());
-            stubMap.put("priority", stub.getPriority());
-            stubMap.put("scenarioName", stub.getScenarioName());
-            stubMap.put("requiredScenarioState", stub.getRequiredScenarioState());
-            stubMap.put("newScenarioState", stub.getNewScenarioState());
-            stubMap.put("persistent", stub.isPersistent());
-            stubMap.put("enabled", stub.isEnabled());
-            
-            // Parse the request/response/metadata strings into JsonNodes for the UI, handling double serialization
-            stubMap.put("request", parsePossiblyDoubleEncodedJson(stub.getRequest(), "request", stub.getId()));
-            stubMap.put("response", processResponseNode(parsePossiblyDoubleEncodedJson(stub.getResponse(), "response", stub.getId()), stub.getId()));
-            stubMap.put("metadata", parsePossiblyDoubleEncodedJson(stub.getMetadata(), "metadata", stub.getId()));
-            
-            result.add(stubMap);
+    public ResponseEntity<?> getAllStubs(@ModelAttribute StubQuery query) {
+        StubPage<Map<String, Object>> page;
+        try {
+            page = stubService.findStubs(query).map(stub -> toStubMap(stub, query.isProjected()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
         
-        return ResponseEntity.ok(result);
+        // Without paging parameters the endpoint keeps returning a plain array
+        return query.isPaged() ? ResponseEntity.ok(page) : ResponseEntity.ok(page.getItems());
+    }
+
+    /**
+     * Stubs with no hits since {@code since} (epoch millis, default: never hit),
+     * least recently used first, so dead stubs can be found and pruned.
+     */
+    @GetMapping("/unused")
+    public ResponseEntity<?> getUnusedStubs(@ModelAttribute StubQuery query,
+                                            @RequestParam(required = false) Long since) {
+        query.setUnusedSince(since != null ? since : 0L);
+        if (query.getSort() == null) {
+            query.setSort("lastHit");
+        }
+        return getAllStubs(query);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getStubById(@PathVariable String id) {
         Stub stub = stubService.getStubById(id);
-        Map<String, Object> stubMap = new HashMap<>();
-        
-        stubMap.put("id", stub.getId());
-        stubMap.put("name", stub.getName());
-        stubMap.put("priority", stub.getPriority());
-        stubMap.put("scenarioName", stub.getScenarioName());
-        stubMap.put("requiredScenarioState", stub.getRequiredScenarioState());
-        stubMap.put("newScenarioState", stub.getNewScenarioState());
-        stubMap.put("persistent", stub.isPersistent());
-        stubMap.put("enabled", stub.isEnabled());
-        
-        // Parse the request/response/metadata strings into JsonNodes for the UI, handling double serialization
-        stubMap.put("request", parsePossiblyDoubleEncodedJson(stub.getRequest(), "request", stub.getId()));
-        stubMap.put("response", processResponseNode(parsePossiblyDoubleEncodedJson(stub.getResponse(), "response", stub.getId()), stub.getId()));
-        stubMap.put("metadata", parsePossiblyDoubleEncodedJson(stub.getMetadata(), "metadata", stub.getId()));
-        
-        return ResponseEntity.ok(stubMap);
+        return ResponseEntity.ok(toStubMap(stub, false));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Stub> updateStub(@PathVariable String id, @RequestBody StubRequest stubRequest) {
+    public ResponseEntity<?> updateStub(@PathVariable String id, @RequestBody StubRequest stubRequest,
+                                        @RequestParam(required = false) String ack) {
         log.info("Updating stub with ID: {}", id);
+        StubWriteBehindService.Ack ackLevel;
+        try {
+            ackLevel = StubWriteBehindService.Ack.parse(ack);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         
         // Convert to Stub entity
         Stub stub = new Stub();
@@ -155,71 +155,43 @@ public class StubController {
             stub.setMetadata("{}");
         }
         
-        return ResponseEntity.ok(stubService.updateStub(id, stub));
+        return ResponseEntity.ok(stubService.updateStub(id, stub, ackLevel));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteStub(@PathVariable String id) {
-        stubService.deleteStub(id);
-        return ResponseEntity.noContent().build();
-    }
-
-    /**
-     * Parses a string that might contain single- or double-encoded JSON.
-     * If the string is empty or null, returns an empty ObjectNode.
-     * If parsing fails at any stage, logs an error and returns an empty ObjectNode.
-     */
-    private JsonNode parsePossiblyDoubleEncodedJson(String jsonString, String fieldName, String stubId) {
-        if (jsonString == null || jsonString.trim().isEmpty()) {
-            return objectMapper.createObjectNode();
-        }
-        
+    public ResponseEntity<?> deleteStub(@PathVariable String id, @RequestParam(required = false) String ack) {
+        StubWriteBehindService.Ack ackLevel;
         try {
-            JsonNode firstPassNode = objectMapper.readTree(jsonString);
-            
-            // Check if the first pass resulted in a TextNode (potential double encoding)
-            if (firstPassNode.isTextual()) {
-                try {
-                    // Try parsing the content of the TextNode
-                    return objectMapper.readTree(firstPassNode.textValue());
-                } catch (Exception e2) {
-                    log.warn("Could not parse inner JSON for stub {} field '{}' after first pass resulted in TextNode. Content: '{}'. Error: {}", 
-                             stubId, fieldName, firstPassNode.textValue(), e2.getMessage());
-                    // Return the TextNode itself if the second parse fails
-                    return firstPassNode; 
-                }
-            }
-            
-            // If the first pass was successful and not a TextNode, return it
-            return firstPassNode;
-            
-        } catch (Exception e1) {
-            log.error("Error parsing initial JSON for stub {} field '{}'. Content: '{}'. Error: {}", 
-                      stubId, fieldName, jsonString, e1.getMessage());
-            // Return an empty node if the initial parse fails
-            return objectMapper.createObjectNode();
+            ackLevel = StubWriteBehindService.Ack.parse(ack);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
+        stubService.deleteStub(id, ackLevel);
+        return ResponseEntity.noContent().build();
     }
 
-    /**
-     * Processes the response JsonNode to handle cases where the 'body' field might be 
-     * a string containing escaped JSON.
-     */
-    private JsonNode processResponseNode(JsonNode responseNode, String stubId) {
-        if (responseNode != null && responseNode.isObject() && responseNode.has("body") && responseNode.get("body").isTextual()) {
-            String bodyText = responseNode.get("body").textValue();
-            try {
-                // Try parsing the body text as JSON
-                JsonNode innerBodyNode = objectMapper.readTree(bodyText);
-                // If successful, replace the text node with the parsed node
-                ((ObjectNode) responseNode).set("body", innerBodyNode);
-                log.debug("Successfully parsed inner JSON in response body for stub {}", stubId);
-            } catch (Exception e) {
-                // If parsing the inner body fails, log it but leave the original TextNode body
-                log.warn("Could not parse response body text as JSON for stub {}. Body text: '{}'. Error: {}", 
-                         stubId, bodyText, e.getMessage());
-            }
-        }
-        return responseNode;
+    private Map<String, Object> toStubMap(Stub stub, boolean projected) {
+        Map<String, Object> stubMap = new HashMap<>();
+        stubMap.put("id", stub.getId());
+        stubMap.put("name", stub.getName());
+        stubMap.put("priority", stub.getPriority());
+        stubMap.put("scenarioName", stub.getScenarioName());
+        stubMap.put("requiredScenarioState", stub.getRequiredScenarioState());
+        stubMap.put("newScenarioState", stub.getNewScenarioState());
+        stubMap.put("persistent", stub.isPersistent());
+        stubMap.put("enabled", stub.isEnabled());
+        stubMap.put("recordingId", stub.getRecordingId());
+        
+        // Stored counts plus hits not yet flushed to MongoDB
+        UUID mappingId = stubService.mappingIdFor(stub);
+        stubMap.put("hitCount", stub.getHitCount() + stubHitService.pendingHits(mappingId));
+        stubMap.put("lastHitAt", stubHitService.lastHitAt(mappingId, stub.getLastHitAt()));
+        
+        // Parsed request/response/metadata come from the compiled stub cache
+        CompiledStub compiled = projected ? stubService.compileDetached(stub) : stubService.compile(stub);
+        stubMap.put("request", compiled.getRequestView());
+        stubMap.put("response", compiled.getResponseView());
+        stubMap.put("metadata", compiled.getMetadataView());
+        return stubMap;
     }
-}
\ No newline at end of file
+}
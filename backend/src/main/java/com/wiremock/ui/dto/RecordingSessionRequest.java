@@ -0,0 +1,17 @@
+package com.wiremock.ui.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Starts a recording session. {@code urlPattern} is a regex over the request URL and
+ * defaults to every URL; {@code headers} must all match exactly.
+ */
+@Data
+public class RecordingSessionRequest {
+    private String name;
+    private String targetUrl;
+    private String urlPattern;
+    private Map<String, String> headers;
+}
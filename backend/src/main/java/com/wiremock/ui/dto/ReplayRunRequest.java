@@ -0,0 +1,28 @@
+package com.wiremock.ui.dto;
+
+import lombok.Data;
+
+/**
+ * Starts a replay. The traffic comes from the request journal, narrowed by
+ * {@code journal}, from the stubs of a recording, or from an uploaded NDJSON file.
+ *
+ * <p>Requests keep their recorded spacing, sped up by {@code timeCompression}, unless
+ * {@code ratePerSecond} is set, which sends them at that fixed rate instead. Either way
+ * arrivals do not wait for responses; {@code concurrency} only caps requests in flight,
+ * and is itself capped at {@code wiremock.replay.max-concurrency}.
+ */
+@Data
+public class ReplayRunRequest {
+    /** {@code journal} or {@code recording}; uploads set it themselves. */
+    private String source;
+    private RequestQuery journal;
+    private String recordingId;
+    /** Base URL to send to; the local mock server when absent. */
+    private String targetUrl;
+    private Double timeCompression;
+    private Double ratePerSecond;
+    private Integer concurrency;
+    /** How many times to play the traffic back to back. */
+    private Integer repeat;
+    private Integer timeoutMs;
+}
@@ -0,0 +1,18 @@
+package com.wiremock.ui.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the request journal, newest first. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
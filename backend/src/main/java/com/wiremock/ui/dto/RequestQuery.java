@@ -0,0 +1,27 @@
+package com.wiremock.ui.dto;
+
+import lombok.Data;
+
+/**
+ * Filters and keyset position for the request journal endpoint.
+ * Bound from query parameters; all fields are optional.
+ */
+@Data
+public class RequestQuery {
+    /** Matches requests whose URL starts with this value. */
+    private String url;
+    private String method;
+    private Integer status;
+    /** 2 for 2xx, 4 for 4xx and so on. */
+    private Integer statusClass;
+    private Boolean matched;
+    private String stubId;
+    /** Epoch milliseconds, inclusive. */
+    private Long from;
+    /** Epoch milliseconds, exclusive. */
+    private Long to;
+
+    /** The {@code nextCursor} of the previous page; pages run from newest to oldest. */
+    private String before;
+    private Integer limit;
+}
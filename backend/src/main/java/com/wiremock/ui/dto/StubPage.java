@@ -0,0 +1,23 @@
+package com.wiremock.ui.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated stub listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StubPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public <R> StubPage<R> map(Function<T, R> mapper) {
+        return new StubPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
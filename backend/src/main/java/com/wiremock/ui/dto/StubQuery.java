@@ -0,0 +1,41 @@
+package com.wiremock.ui.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Filters, keyset position and projection for the stub list endpoints.
+ * Bound from query parameters; all fields are optional.
+ */
+@Data
+public class StubQuery {
+    private String name;
+    private String url;
+    private String method;
+    private Boolean enabled;
+    private String scenario;
+    private String operationName;
+    private String soapAction;
+
+    /** Only stubs not hit since this time (epoch millis), including stubs never hit. */
+    private Long unusedSince;
+
+    /** {@code hits} or {@code lastHit}, prefixed with '-' for descending. Defaults to creation order. */
+    private String sort;
+
+    /** The {@code nextCursor} of the previous page. */
+    private String after;
+    private Integer limit;
+
+    /** Fields to include, or to exclude when prefixed with '-'. */
+    private List<String> fields;
+
+    public boolean isPaged() {
+        return limit != null || after != null;
+    }
+
+    public boolean isProjected() {
+        return fields != null && !fields.isEmpty();
+    }
+}
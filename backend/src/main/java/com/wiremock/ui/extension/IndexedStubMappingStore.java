@@ -0,0 +1,87 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.store.InMemoryStubMappingStore;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.SubEvent;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Stub store that only tests the mappings a {@link StubMappingIndex} returns for a request
+ * instead of every mapping. WireMock's in-memory store still owns ordering and insertion
+ * indexes, and candidates are tried in the same priority order, so which stub answers a
+ * request (including scenario state checks done by the caller) is unchanged.
+ */
+public class IndexedStubMappingStore implements StubMappingStore {
+    // Same order as WireMock's sorted mapping set: priority, then most recently added first
+    private static final Comparator<StubMapping> MATCH_ORDER = ((Comparator<StubMapping>) StubMapping::comparePriorityWith)
+        .thenComparing((one, two) -> Long.compare(two.getInsertionIndex(), one.getInsertionIndex()));
+
+    private final InMemoryStubMappingStore mappings = new InMemoryStubMappingStore();
+    private final Map<UUID, StubMapping> byId = new ConcurrentHashMap<>();
+    private final StubMappingIndex index = new StubMappingIndex();
+
+    @Override
+    public Stream<StubMapping> getAll() {
+        return mappings.getAll();
+    }
+
+    @Override
+    public Optional<StubMapping> get(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public Stream<StubMapping> findAllMatchingRequest(Request request,
+                                                      Map<String, RequestMatcherExtension> customMatchers,
+                                                      Consumer<SubEvent> subEventConsumer) {
+        List<StubMapping> candidates = index.candidatesFor(request);
+        candidates.sort(MATCH_ORDER);
+        return candidates.stream().filter(mapping -> {
+            MatchResult result = mapping.getRequest().match(request, customMatchers);
+            result.getSubEvents().forEach(subEventConsumer);
+            return result.isExactMatch();
+        });
+    }
+
+    @Override
+    public void add(StubMapping mapping) {
+        mappings.add(mapping);
+        byId.put(mapping.getId(), mapping);
+        index.add(mapping);
+    }
+
+    @Override
+    public void replace(StubMapping existing, StubMapping updated) {
+        mappings.replace(existing, updated);
+        byId.remove(existing.getId());
+        index.remove(existing.getId());
+        byId.put(updated.getId(), updated);
+        index.add(updated);
+    }
+
+    @Override
+    public void remove(StubMapping mapping) {
+        mappings.remove(mapping);
+        byId.remove(mapping.getId());
+        index.remove(mapping.getId());
+    }
+
+    @Override
+    public void clear() {
+        mappings.clear();
+        byId.clear();
+        index.clear();
+    }
+}
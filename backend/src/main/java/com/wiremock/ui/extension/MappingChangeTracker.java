@@ -0,0 +1,139 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts changes to WireMock's mappings, whichever API made them, so work derived from
+ * the full set of mappings can be skipped while nothing has changed. A {@link Watch}
+ * additionally records which mappings other threads changed while it was open.
+ */
+@Component
+public class MappingChangeTracker implements StubLifecycleListener {
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+
+    /** The latest change another thread made to a mapping; {@code mapping} is null once it was removed. */
+    public record Change(long generation, UUID id, StubMapping mapping) {
+    }
+
+    @Override
+    public String getName() {
+        return "mapping-change-tracker";
+    }
+
+    @Override
+    public void afterStubCreated(StubMapping stub) {
+        changed(stub, stub);
+    }
+
+    @Override
+    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+        changed(oldStub, newStub);
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        changed(stub, null);
+    }
+
+    @Override
+    public void afterStubsReset() {
+        generation.incrementAndGet();
+        for (Watch watch : watches) {
+            if (watch.owner != Thread.currentThread()) {
+                watch.reset = true;
+            }
+        }
+    }
+
+    /** Increases on every change; compare two readings to see whether anything changed. */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Starts recording the changes other threads make to mappings until the watch is
+     * closed. Changes made by the calling thread are not recorded.
+     */
+    public Watch watch() {
+        Watch watch = new Watch(Thread.currentThread());
+        watches.add(watch);
+        return watch;
+    }
+
+    private void changed(StubMapping before, StubMapping after) {
+        long current = generation.incrementAndGet();
+        for (Watch watch : watches) {
+            if (watch.owner != Thread.currentThread()) {
+                watch.record(current, before, after);
+            }
+        }
+    }
+
+    /** The mappings other threads changed since a {@link #watch()} was started. */
+    public final class Watch implements AutoCloseable {
+        private final Thread owner;
+        private final Map<UUID, Change> changes = new ConcurrentHashMap<>();
+        private final Set<String> stubIds = ConcurrentHashMap.newKeySet();
+        private volatile boolean reset;
+
+        private Watch(Thread owner) {
+            this.owner = owner;
+        }
+
+        private void record(long current, StubMapping before, StubMapping after) {
+            addStubId(before);
+            addStubId(after);
+            changes.merge(before.getId(), new Change(current, before.getId(), after),
+                (previous, latest) -> latest.generation() > previous.generation() ? latest : previous);
+        }
+
+        private void addStubId(StubMapping mapping) {
+            String stubId = stubIdOf(mapping);
+            if (stubId != null) {
+                stubIds.add(stubId);
+            }
+        }
+
+        /** Whether another thread changed this mapping, or any mapping of the same stored stub. */
+        public boolean changed(StubMapping mapping) {
+            if (changes.containsKey(mapping.getId())) {
+                return true;
+            }
+            String stubId = stubIdOf(mapping);
+            return stubId != null && stubIds.contains(stubId);
+        }
+
+        /** Whether another thread reset all mappings, after which none of them can be told apart. */
+        public boolean wasReset() {
+            return reset;
+        }
+
+        /** The latest change to each mapping another thread changed. */
+        public Collection<Change> changes() {
+            return changes.values();
+        }
+
+        @Override
+        public void close() {
+            watches.remove(this);
+        }
+    }
+
+    private static String stubIdOf(StubMapping mapping) {
+        Metadata metadata = mapping.getMetadata();
+        return metadata != null && metadata.containsKey(StubHitListener.STUB_ID_METADATA)
+            ? metadata.getString(StubHitListener.STUB_ID_METADATA)
+            : null;
+    }
+}
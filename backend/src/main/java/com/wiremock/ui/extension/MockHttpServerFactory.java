@@ -0,0 +1,33 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.HttpServer;
+import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+import com.github.tomakehurst.wiremock.jetty11.Jetty11HttpServer;
+import com.github.tomakehurst.wiremock.servlet.WireMockHandlerDispatchingServlet;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+
+/**
+ * WireMock's Jetty server with {@link ScheduledDribbleServlet} serving the mock port in
+ * place of WireMock's own servlet. The admin port is left as it is.
+ */
+public class MockHttpServerFactory implements HttpServerFactory {
+
+    @Override
+    public HttpServer buildHttpServer(Options options, AdminRequestHandler adminRequestHandler,
+                                      StubRequestHandler stubRequestHandler) {
+        return new Jetty11HttpServer(options, adminRequestHandler, stubRequestHandler) {
+            @Override
+            protected void decorateMockServiceContextAfterConfig(ServletContextHandler context) {
+                for (ServletHolder holder : context.getServletHandler().getServlets()) {
+                    if (WireMockHandlerDispatchingServlet.class.getName().equals(holder.getClassName())) {
+                        holder.setHeldClass(ScheduledDribbleServlet.class);
+                    }
+                }
+            }
+        };
+    }
+}
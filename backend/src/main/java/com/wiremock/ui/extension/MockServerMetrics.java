@@ -0,0 +1,78 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records stub matching and response times of the mock server. Every timer is
+ * registered up front, so the serving thread only reads a clock and updates a timer.
+ */
+@Component
+public class MockServerMetrics implements ServeEventListener {
+    private static final String[] STATUS_CLASSES = {"OTHER", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    // Matching runs on the request thread between the before and after match events
+    private final ThreadLocal<long[]> matchStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Timer matchTimer;
+    // [matched ? 1 : 0][status class]
+    private final Timer[][] responseTimers = new Timer[2][STATUS_CLASSES.length];
+
+    public MockServerMetrics(MeterRegistry registry) {
+        matchTimer = Timer.builder("wiremock.match")
+            .description("Time to find the stub mapping for a request")
+            .register(registry);
+        for (int matched = 0; matched < 2; matched++) {
+            for (int statusClass = 0; statusClass < STATUS_CLASSES.length; statusClass++) {
+                responseTimers[matched][statusClass] = Timer.builder("wiremock.requests")
+                    .description("Time from receiving a mock request to the response being sent, including delays")
+                    .tag("matched", String.valueOf(matched == 1))
+                    .tag("status", STATUS_CLASSES[statusClass])
+                    .register(registry);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void beforeMatch(ServeEvent serveEvent, Parameters parameters) {
+        matchStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterMatch(ServeEvent serveEvent, Parameters parameters) {
+        long[] slot = matchStart.get();
+        long start = slot[0];
+        // Cleared so an afterMatch without its beforeMatch is skipped rather than timed from a stale start
+        slot[0] = 0;
+        if (start != 0) {
+            matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        Timing timing = serveEvent.getTiming();
+        Integer totalTime = timing != null ? timing.getTotalTime() : null;
+        if (totalTime == null) {
+            return;
+        }
+        LoggedResponse response = serveEvent.getResponse();
+        int status = response != null ? response.getStatus() : serveEvent.getResponseDefinition().getStatus();
+        int statusClass = status / 100;
+        responseTimers[serveEvent.getWasMatched() ? 1 : 0][statusClass >= 1 && statusClass <= 5 ? statusClass : 0]
+            .record(totalTime, TimeUnit.MILLISECONDS);
+    }
+}
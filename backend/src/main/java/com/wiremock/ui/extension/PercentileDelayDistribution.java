@@ -0,0 +1,79 @@
+package com.wiremock.ui.extension;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delay distribution described by a percentile table, typically copied from production
+ * latency metrics, e.g. {@code {"50": 20, "90": 80, "99": 250}}. Samples are interpolated
+ * linearly between the listed points, from {@code min} at the 0th percentile up to the
+ * highest percentile given; anything above it gets the highest value.
+ */
+@JsonTypeName("percentile")
+public class PercentileDelayDistribution implements DelayDistribution {
+    private final long min;
+    private final Map<String, Long> percentiles;
+    private final double[] points;
+    private final long[] millis;
+
+    @JsonCreator
+    public PercentileDelayDistribution(@JsonProperty("percentiles") Map<String, Long> percentiles,
+                                       @JsonProperty("min") Long min) {
+        if (percentiles == null || percentiles.isEmpty()) {
+            throw new IllegalArgumentException("Percentile delay needs at least one percentile");
+        }
+        TreeMap<Double, Long> sorted = new TreeMap<>();
+        percentiles.forEach((key, value) -> {
+            double percentile;
+            try {
+                percentile = Double.parseDouble(key.startsWith("p") ? key.substring(1) : key);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid percentile '" + key + "'");
+            }
+            if (percentile <= 0 || percentile > 100 || value == null || value < 0) {
+                throw new IllegalArgumentException("Invalid percentile delay " + key + "=" + value);
+            }
+            sorted.put(percentile, value);
+        });
+        this.min = min != null ? min : 0;
+        this.percentiles = percentiles;
+        this.points = new double[sorted.size() + 1];
+        this.millis = new long[sorted.size() + 1];
+        millis[0] = this.min;
+        int i = 1;
+        for (Map.Entry<Double, Long> entry : sorted.entrySet()) {
+            points[i] = entry.getKey();
+            // Keep the table monotonic so interpolation never goes backwards
+            millis[i] = Math.max(entry.getValue(), millis[i - 1]);
+            i++;
+        }
+    }
+
+    @JsonProperty("percentiles")
+    public Map<String, Long> getPercentiles() {
+        return percentiles;
+    }
+
+    @JsonProperty("min")
+    public long getMin() {
+        return min;
+    }
+
+    @Override
+    public long sampleMillis() {
+        double percentile = ThreadLocalRandom.current().nextDouble(100.0);
+        for (int i = 1; i < points.length; i++) {
+            if (percentile <= points[i]) {
+                double fraction = (percentile - points[i - 1]) / (points[i] - points[i - 1]);
+                return millis[i - 1] + Math.round(fraction * (millis[i] - millis[i - 1]));
+            }
+        }
+        return millis[millis.length - 1];
+    }
+}
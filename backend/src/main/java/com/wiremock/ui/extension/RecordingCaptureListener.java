@@ -0,0 +1,82 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hands requests served by a recording session's proxy mapping to that session. Proxy
+ * mappings carry {@link #SESSION_METADATA} and name this transformer; they exist only
+ * while their session records and are never stored, snapshotted or dropped by a reload.
+ *
+ * <p>Capturing is done as a response transformer rather than from serve events, so the
+ * session sees the upstream response with its whole body. Serve events only keep as much
+ * of a body as the request journal does.
+ */
+@Slf4j
+@Component
+public class RecordingCaptureListener implements ResponseTransformerV2 {
+    /** Mapping metadata key holding the id of the recording session a proxy mapping belongs to. */
+    public static final String SESSION_METADATA = "recordingSession";
+
+    public static final String NAME = "recording-capture";
+
+    /** A request a session's proxy served, and the response it got from the target. */
+    public record Capture(ServeEvent event, int status, HttpHeaders headers, byte[] body) {
+    }
+
+    private final Map<UUID, Consumer<Capture>> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        StubMapping stub = serveEvent.getStubMapping();
+        Consumer<Capture> session = stub != null && stub.getId() != null ? sessions.get(stub.getId()) : null;
+        if (session == null) {
+            return response;
+        }
+        try {
+            session.accept(new Capture(serveEvent, response.getStatus(), response.getHeaders(), response.getBody()));
+        } catch (RuntimeException e) {
+            // Never fail a proxied request because it could not be recorded
+            log.warn("Failed to capture request {}: {}", serveEvent.getId(), e.getMessage());
+        }
+        return response;
+    }
+
+    /** Registers a session's proxy mapping with WireMock and sends what it serves to the session. */
+    public synchronized void register(WireMockServer server, StubMapping proxyMapping, Consumer<Capture> session) {
+        sessions.put(proxyMapping.getId(), session);
+        server.addStubMapping(proxyMapping);
+    }
+
+    public synchronized void unregister(WireMockServer server, UUID proxyMappingId) {
+        server.removeStubMapping(proxyMappingId);
+        sessions.remove(proxyMappingId);
+    }
+
+    public static boolean isSessionProxy(StubMapping mapping) {
+        Metadata metadata = mapping.getMetadata();
+        return metadata != null && metadata.containsKey(SESSION_METADATA);
+    }
+}
@@ -0,0 +1,38 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.wiremock.ui.journal.RequestJournalStore;
+import com.wiremock.ui.journal.RequestStreamBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends every completed serve event to the configured {@link RequestJournalStore}
+ * and pushes it to live subscribers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestJournalListener implements ServeEventListener {
+    private final RequestJournalStore journalStore;
+    private final RequestStreamBroadcaster streamBroadcaster;
+
+    @Override
+    public String getName() {
+        return "request-journal";
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        try {
+            String id = journalStore.append(serveEvent);
+            streamBroadcaster.publish(id != null ? id : serveEvent.getId().toString(), serveEvent);
+        } catch (RuntimeException e) {
+            // Never fail a served request because the journal could not record it
+            log.warn("Failed to journal request {}: {}", serveEvent.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts served requests as they complete, so request statistics never require
+ * reading the request journal.
+ */
+@Component
+public class RequestStatsListener implements ServeEventListener {
+    private final LongAdder total = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    // Index 1..5 holds 1xx..5xx; index 0 collects anything outside that range
+    private final LongAdder[] byStatusClass = new LongAdder[6];
+
+    private final RequestTimeSeries timeSeries = new RequestTimeSeries();
+
+    public RequestStatsListener() {
+        for (int i = 0; i < byStatusClass.length; i++) {
+            byStatusClass[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "request-stats";
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        total.increment();
+        if (!serveEvent.getWasMatched()) {
+            unmatched.increment();
+        }
+
+        LoggedResponse response = serveEvent.getResponse();
+        int status = response != null ? response.getStatus() : serveEvent.getResponseDefinition().getStatus();
+        int statusClass = status / 100;
+        byStatusClass[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+
+        Timing timing = serveEvent.getTiming();
+        Integer latency = timing != null ? timing.getTotalTime() : null;
+        timeSeries.record(System.currentTimeMillis(), status, serveEvent.getWasMatched(), latency != null ? latency : 0);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getUnmatched() {
+        return unmatched.sum();
+    }
+
+    /**
+     * Returns the number of responses in a status class, e.g. 2 for 2xx.
+     */
+    public long getStatusClassCount(int statusClass) {
+        return byStatusClass[statusClass].sum();
+    }
+
+    public long getErrorCount() {
+        return byStatusClass[4].sum() + byStatusClass[5].sum();
+    }
+
+    public RequestTimeSeries getTimeSeries() {
+        return timeSeries;
+    }
+
+    public void reset() {
+        total.reset();
+        unmatched.reset();
+        for (LongAdder adder : byStatusClass) {
+            adder.reset();
+        }
+        timeSeries.reset();
+    }
+}
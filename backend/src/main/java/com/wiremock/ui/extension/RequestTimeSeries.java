@@ -0,0 +1,215 @@
+package com.wiremock.ui.extension;
+
+import com.wiremock.ui.model.TimeSeriesWindow;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size rings of per-second and per-minute request buckets. Each bucket holds
+ * counts, status classes and a log-linear latency histogram, so memory use depends
+ * only on the ring sizes and never on traffic.
+ */
+public class RequestTimeSeries {
+    public static final int SECONDS_TRACKED = 300;
+    public static final int MINUTES_TRACKED = 1440;
+
+    // Latencies below 16 ms get one bin each; above that, 8 bins per power of two (~12% wide)
+    private static final int LINEAR_BINS = 16;
+    private static final int SUB_BINS = 8;
+    private static final int MAX_EXPONENT = 24;
+    private static final int HISTOGRAM_BINS = LINEAR_BINS + (MAX_EXPONENT - 3) * SUB_BINS;
+
+    // Slot layout within a bucket
+    private static final int COUNT = 0;
+    private static final int MATCHED = 1;
+    private static final int UNMATCHED = 2;
+    private static final int STATUS = 3; // 6 entries: other, 1xx..5xx
+    private static final int LATENCY_SUM = 9;
+    private static final int LATENCY_MAX = 10;
+    private static final int HISTOGRAM = 11;
+    private static final int SLOT_SIZE = HISTOGRAM + HISTOGRAM_BINS;
+
+    private final Ring seconds = new Ring(1000, SECONDS_TRACKED);
+    private final Ring minutes = new Ring(60_000, MINUTES_TRACKED);
+
+    public void record(long nowMillis, int status, boolean matched, long latencyMillis) {
+        record(seconds.slotFor(nowMillis), status, matched, latencyMillis);
+        record(minutes.slotFor(nowMillis), status, matched, latencyMillis);
+    }
+
+    /**
+     * Summarises the last {@code durationSeconds}, read from the per-second ring when
+     * it covers the window and from the per-minute ring otherwise.
+     */
+    public TimeSeriesWindow window(String name, int durationSeconds, long nowMillis, boolean withPoints) {
+        Ring ring = durationSeconds <= SECONDS_TRACKED ? seconds : minutes;
+        int buckets = Math.min(ring.size, (int) Math.ceil(durationSeconds * 1000.0 / ring.resolutionMillis));
+        long currentTick = nowMillis / ring.resolutionMillis;
+
+        long[] totals = new long[SLOT_SIZE];
+        List<TimeSeriesWindow.Point> points = withPoints ? new ArrayList<>(buckets) : null;
+        for (long tick = currentTick - buckets + 1; tick <= currentTick; tick++) {
+            AtomicLongArray slot = ring.slotIfCurrent(tick);
+            long[] values = new long[SLOT_SIZE];
+            if (slot != null) {
+                for (int i = 0; i < SLOT_SIZE; i++) {
+                    values[i] = slot.get(i);
+                }
+                for (int i = 0; i < SLOT_SIZE; i++) {
+                    totals[i] = i == LATENCY_MAX ? Math.max(totals[i], values[i]) : totals[i] + values[i];
+                }
+            }
+            if (points != null) {
+                points.add(toPoint(tick * ring.resolutionMillis, values));
+            }
+        }
+
+        TimeSeriesWindow window = new TimeSeriesWindow();
+        window.setWindow(name);
+        window.setDurationSeconds(durationSeconds);
+        window.setResolutionSeconds(ring.resolutionMillis / 1000);
+        window.setRequests(totals[COUNT]);
+        window.setMatched(totals[MATCHED]);
+        window.setUnmatched(totals[UNMATCHED]);
+        window.setRequestsPerSecond((double) totals[COUNT] / durationSeconds);
+        window.setStatusClasses(statusClasses(totals));
+        window.setLatency(latency(totals));
+        window.setPoints(points);
+        return window;
+    }
+
+    public void reset() {
+        seconds.reset();
+        minutes.reset();
+    }
+
+    private static void record(AtomicLongArray slot, int status, boolean matched, long latencyMillis) {
+        int statusClass = status / 100;
+        long latency = Math.max(0, latencyMillis);
+        slot.incrementAndGet(COUNT);
+        slot.incrementAndGet(matched ? MATCHED : UNMATCHED);
+        slot.incrementAndGet(STATUS + (statusClass >= 1 && statusClass <= 5 ? statusClass : 0));
+        slot.addAndGet(LATENCY_SUM, latency);
+        slot.accumulateAndGet(LATENCY_MAX, latency, Math::max);
+        slot.incrementAndGet(HISTOGRAM + binFor(latency));
+    }
+
+    private static int binFor(long value) {
+        if (value < LINEAR_BINS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return HISTOGRAM_BINS - 1;
+        }
+        int sub = (int) (value >> (exponent - 3)) & (SUB_BINS - 1);
+        return LINEAR_BINS + (exponent - 4) * SUB_BINS + sub;
+    }
+
+    /** The highest latency that falls into a bin. */
+    private static long upperBoundOf(int bin) {
+        if (bin < LINEAR_BINS) {
+            return bin;
+        }
+        int exponent = (bin - LINEAR_BINS) / SUB_BINS + 4;
+        int sub = (bin - LINEAR_BINS) % SUB_BINS;
+        long width = 1L << (exponent - 3);
+        return ((SUB_BINS + sub) * width) + width - 1;
+    }
+
+    private static Map<String, Long> statusClasses(long[] values) {
+        Map<String, Long> classes = new LinkedHashMap<>();
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            classes.put(statusClass + "xx", values[STATUS + statusClass]);
+        }
+        classes.put("other", values[STATUS]);
+        return classes;
+    }
+
+    private static TimeSeriesWindow.LatencySummary latency(long[] values) {
+        TimeSeriesWindow.LatencySummary latency = new TimeSeriesWindow.LatencySummary();
+        long count = values[COUNT];
+        if (count == 0) {
+            return latency;
+        }
+        latency.setMean((double) values[LATENCY_SUM] / count);
+        latency.setMax(values[LATENCY_MAX]);
+        latency.setP50(percentile(values, count, 0.50));
+        latency.setP90(percentile(values, count, 0.90));
+        latency.setP99(percentile(values, count, 0.99));
+        latency.setP999(percentile(values, count, 0.999));
+        return latency;
+    }
+
+    private static long percentile(long[] values, long count, double quantile) {
+        long rank = Math.max(1, (long) Math.ceil(count * quantile));
+        long seen = 0;
+        for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+            seen += values[HISTOGRAM + bin];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bin), values[LATENCY_MAX]);
+            }
+        }
+        return values[LATENCY_MAX];
+    }
+
+    private static TimeSeriesWindow.Point toPoint(long timestamp, long[] values) {
+        TimeSeriesWindow.Point point = new TimeSeriesWindow.Point();
+        point.setTimestamp(timestamp);
+        point.setRequests(values[COUNT]);
+        point.setUnmatched(values[UNMATCHED]);
+        point.setErrors(values[STATUS + 4] + values[STATUS + 5]);
+        point.setMeanLatency(values[COUNT] == 0 ? 0 : (double) values[LATENCY_SUM] / values[COUNT]);
+        return point;
+    }
+
+    private static final class Ring {
+        private final long resolutionMillis;
+        private final int size;
+        private final AtomicLongArray ticks;
+        private final AtomicLongArray[] slots;
+
+        private Ring(long resolutionMillis, int size) {
+            this.resolutionMillis = resolutionMillis;
+            this.size = size;
+            this.ticks = new AtomicLongArray(size);
+            this.slots = new AtomicLongArray[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = new AtomicLongArray(SLOT_SIZE);
+            }
+        }
+
+        private AtomicLongArray slotFor(long nowMillis) {
+            long tick = nowMillis / resolutionMillis;
+            int index = (int) (tick % size);
+            long stamp = ticks.get(index);
+            // The first event of a new tick recycles the slot last used one full ring ago
+            if (stamp != tick && ticks.compareAndSet(index, stamp, tick)) {
+                clear(slots[index]);
+            }
+            return slots[index];
+        }
+
+        private AtomicLongArray slotIfCurrent(long tick) {
+            int index = (int) (tick % size);
+            return ticks.get(index) == tick ? slots[index] : null;
+        }
+
+        private void reset() {
+            for (int i = 0; i < size; i++) {
+                ticks.set(i, 0);
+                clear(slots[i]);
+            }
+        }
+
+        private static void clear(AtomicLongArray slot) {
+            for (int i = 0; i < SLOT_SIZE; i++) {
+                slot.set(i, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.http.Body;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.util.HttpEncodings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps stub response bodies as shared, immutable bytes with a gzipped copy made once
+ * when the stub is registered. Bodies are content addressed, so identical fixtures on
+ * different stubs are held (and compressed) once, and each stub's response definition
+ * is rewritten to point at the shared bytes. When a client accepts gzip the cached
+ * copy is served with {@code Content-Encoding: gzip}, which also keeps Jetty from
+ * compressing the body again on every request.
+ *
+ * <p>Only static bodies are cached: stubs with response transformers, body files,
+ * proxying, faults or their own {@code Content-Encoding}/{@code Content-Length} are
+ * served as before.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wiremock.cache.response-bodies.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseBodyCache implements StubLifecycleListener, ResponseTransformerV2 {
+    private static final ContentTypeHeader TEXT = new ContentTypeHeader("text/plain");
+    private static final ContentTypeHeader BINARY = new ContentTypeHeader("application/octet-stream");
+
+    private final Map<String, CachedBody> byDigest = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedBody> byMapping = new ConcurrentHashMap<>();
+    private long cachedBytes;
+
+    @Value("${wiremock.cache.response-bodies.min-gzip-bytes:1024}")
+    private int minGzipBytes;
+
+    @Value("${wiremock.cache.response-bodies.max-mb:512}")
+    private long maxMb;
+
+    @Override
+    public String getName() {
+        return "response-body-cache";
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return true;
+    }
+
+    @Override
+    public void beforeStubCreated(StubMapping stub) {
+        attach(stub);
+    }
+
+    @Override
+    public void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {
+        if (!oldStub.getId().equals(newStub.getId())) {
+            release(oldStub.getId());
+        }
+        attach(newStub);
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        release(stub.getId());
+    }
+
+    @Override
+    public synchronized void afterStubsReset() {
+        byMapping.clear();
+        byDigest.clear();
+        cachedBytes = 0;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        StubMapping stub = serveEvent.getStubMapping();
+        if (!serveEvent.getWasMatched() || stub == null) {
+            return response;
+        }
+        CachedBody body = byMapping.get(stub.getId());
+        if (body == null || body.gzipped == null
+            || response.getHeaders().getHeader("Content-Encoding").isPresent()
+            || !acceptsGzip(serveEvent.getRequest().getHeader("Accept-Encoding"))) {
+            return response;
+        }
+        return Response.Builder.like(response).but()
+            .body(body.gzipped)
+            .headers(gzipHeaders(response.getHeaders()))
+            .build();
+    }
+
+    /** Adds the gzip encoding, and Accept-Encoding to any Vary the stub already sends. */
+    private static HttpHeaders gzipHeaders(HttpHeaders headers) {
+        HttpHeader vary = headers.getHeader("Vary");
+        if (HttpEncodings.variesOn(vary, "Accept-Encoding")) {
+            return headers.plus(new HttpHeader("Content-Encoding", "gzip"));
+        }
+        List<HttpHeader> result = new ArrayList<>(headers.size() + 2);
+        for (HttpHeader header : headers.all()) {
+            if (!header.keyEquals("Vary")) {
+                result.add(header);
+            }
+        }
+        List<String> varyValues = new ArrayList<>(vary.isPresent() ? vary.values() : List.of());
+        varyValues.add("Accept-Encoding");
+        result.add(new HttpHeader("Vary", varyValues));
+        result.add(new HttpHeader("Content-Encoding", "gzip"));
+        return new HttpHeaders(result);
+    }
+
+    private synchronized void attach(StubMapping stub) {
+        // Dropped only after the new body is in, so re-registering an unchanged body keeps its entry
+        CachedBody previous = byMapping.remove(stub.getId());
+        try {
+            cache(stub);
+        } finally {
+            if (previous != null) {
+                unreference(previous);
+            }
+        }
+    }
+
+    private void cache(StubMapping stub) {
+        ResponseDefinition response = stub.getResponse();
+        if (!cacheable(response)) {
+            return;
+        }
+        byte[] content = response.getByteBody();
+        String digest = digest(content);
+        CachedBody body = byDigest.get(digest);
+        if (body == null) {
+            byte[] gzipped = content.length >= minGzipBytes ? gzip(content) : null;
+            if (gzipped != null && gzipped.length >= content.length) {
+                gzipped = null;
+            }
+            long size = content.length + (gzipped != null ? gzipped.length : 0);
+            if (cachedBytes + size > maxMb * 1024 * 1024) {
+                log.debug("Response body cache is full, serving stub {} uncached", stub.getId());
+                return;
+            }
+            body = new CachedBody(digest, content, gzipped);
+            byDigest.put(digest, body);
+            cachedBytes += size;
+        }
+        body.refs++;
+        byMapping.put(stub.getId(), body);
+        if (body.content != content) {
+            stub.setResponse(ResponseDefinitionBuilder.like(response)
+                .withResponseBody(share(response.getReponseBody(), body.content))
+                .build());
+        }
+    }
+
+    private synchronized void release(UUID stubId) {
+        CachedBody body = byMapping.remove(stubId);
+        if (body != null) {
+            unreference(body);
+        }
+    }
+
+    private void unreference(CachedBody body) {
+        if (--body.refs == 0) {
+            byDigest.remove(body.digest);
+            cachedBytes -= body.content.length + (body.gzipped != null ? body.gzipped.length : 0);
+        }
+    }
+
+    private static boolean cacheable(ResponseDefinition response) {
+        return response != null
+            && response.specifiesBodyContent()
+            && response.getByteBody() != null
+            && response.getByteBody().length > 0
+            && (response.getTransformers() == null || response.getTransformers().isEmpty())
+            && response.getProxyBaseUrl() == null
+            && response.getFault() == null
+            && (response.getHeaders() == null
+                || (!response.getHeaders().getHeader("Content-Encoding").isPresent()
+                    && !response.getHeaders().getHeader("Content-Length").isPresent()));
+    }
+
+    /** The same kind of body (JSON, binary or text) backed by the shared bytes. */
+    private static Body share(Body original, byte[] content) {
+        if (original.isJson()) {
+            return Body.fromJsonBytes(content);
+        }
+        if (original.isBinary()) {
+            return new Body(content);
+        }
+        // WireMock 3.3 inverts the text/binary flag in ofBinaryOrText, so take whichever gives text
+        Body text = Body.ofBinaryOrText(content, TEXT);
+        return text.isBinary() ? Body.ofBinaryOrText(content, BINARY) : text;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class CachedBody {
+        private final String digest;
+        private final byte[] content;
+        private final byte[] gzipped;
+        private int refs;
+
+        private CachedBody(String digest, byte[] content, byte[] gzipped) {
+            this.digest = digest;
+            this.content = content;
+            this.gzipped = gzipped;
+        }
+    }
+}
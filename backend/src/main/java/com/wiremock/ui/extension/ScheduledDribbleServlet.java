@@ -0,0 +1,247 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.servlet.BodyChunker;
+import com.github.tomakehurst.wiremock.servlet.WireMockHandlerDispatchingServlet;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WireMock's mock servlet, except that a chunked dribble delay is served from the
+ * asynchronous response scheduler: each chunk is written by a scheduled task instead of
+ * the writing thread sleeping between chunks, so a dribbling response holds no thread
+ * while it waits. Without asynchronous responses WireMock's own sleeping dribble is used.
+ */
+@Slf4j
+public class ScheduledDribbleServlet extends WireMockHandlerDispatchingServlet {
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void init(ServletConfig config) {
+        super.init(config);
+        ServletContext context = config.getServletContext();
+        scheduler = (ScheduledExecutorService) context.getAttribute(ASYNCHRONOUS_RESPONSE_EXECUTOR);
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+        throws ServletException, IOException {
+        super.service(scheduler != null ? new DeferrableRequest(request) : request, response);
+    }
+
+    @Override
+    public void applyResponse(Response response, HttpServletRequest request, HttpServletResponse httpResponse) {
+        if (!response.shouldAddChunkedDribbleDelay() || response.getFault() != null
+            || !(request instanceof DeferrableRequest deferrable)) {
+            super.applyResponse(response, request, httpResponse);
+            return;
+        }
+        // Let WireMock write the status and headers, keeping the body to dribble it out
+        BodyCapture capture = new BodyCapture(httpResponse);
+        Response head = Response.Builder.like(response).but().statusMessage(null).chunkedDribbleDelay(null).build();
+        super.applyResponse(head, request, capture);
+        if (response.getStatusMessage() != null && httpResponse instanceof org.eclipse.jetty.server.Response jetty) {
+            // Only Jetty's own response takes a reason phrase, and the wrapper hides it
+            jetty.setStatusWithReason(response.getStatus(), response.getStatusMessage());
+        }
+        AsyncContext async = deferrable.deferCompletion();
+        byte[] body = capture.body.toByteArray();
+        if (body.length == 0) {
+            log.warn("Cannot chunk dribble delay when no body set");
+            async.complete();
+            return;
+        }
+        ChunkedDribbleDelay delay = response.getChunkedDribbleDelay();
+        byte[][] chunks = BodyChunker.chunkBody(body, delay.getNumberOfChunks());
+        long interval = delay.getTotalDuration() / chunks.length;
+        try {
+            scheduleChunk(httpResponse.getOutputStream(), chunks, 0, interval, async);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to dribble response: {}", e.getMessage());
+            async.complete();
+        }
+    }
+
+    private void scheduleChunk(ServletOutputStream out, byte[][] chunks, int index, long interval, AsyncContext async) {
+        scheduler.schedule(() -> {
+            boolean more;
+            try {
+                out.write(chunks[index]);
+                out.flush();
+                more = index + 1 < chunks.length;
+            } catch (IOException | RuntimeException e) {
+                // Typically the client went away mid-dribble
+                log.debug("Failed to dribble response: {}", e.getMessage());
+                more = false;
+            }
+            if (more) {
+                scheduleChunk(out, chunks, index + 1, interval, async);
+            } else {
+                async.complete();
+            }
+        }, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands out an {@link AsyncContext} whose completion can be taken over, because
+     * WireMock completes a delayed response as soon as it has been applied.
+     */
+    private static class DeferrableRequest extends HttpServletRequestWrapper {
+        private volatile DeferrableAsyncContext async;
+
+        DeferrableRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public AsyncContext startAsync() {
+            async = new DeferrableAsyncContext(super.startAsync());
+            return async;
+        }
+
+        @Override
+        public AsyncContext getAsyncContext() {
+            return async != null ? async : super.getAsyncContext();
+        }
+
+        /** Starts async processing if WireMock hasn't, and returns the context only the caller completes. */
+        AsyncContext deferCompletion() {
+            if (async == null) {
+                startAsync();
+            }
+            async.deferred = true;
+            // A dribble lasts as long as the stub says, like the sleeping one does
+            async.delegate.setTimeout(0);
+            return async.delegate;
+        }
+    }
+
+    private static class DeferrableAsyncContext implements AsyncContext {
+        private final AsyncContext delegate;
+        private volatile boolean deferred;
+
+        DeferrableAsyncContext(AsyncContext delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void complete() {
+            if (!deferred) {
+                delegate.complete();
+            }
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return delegate.getRequest();
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return delegate.getResponse();
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return delegate.hasOriginalRequestAndResponse();
+        }
+
+        @Override
+        public void dispatch() {
+            delegate.dispatch();
+        }
+
+        @Override
+        public void dispatch(String path) {
+            delegate.dispatch(path);
+        }
+
+        @Override
+        public void dispatch(ServletContext context, String path) {
+            delegate.dispatch(context, path);
+        }
+
+        @Override
+        public void start(Runnable run) {
+            delegate.start(run);
+        }
+
+        @Override
+        public void addListener(AsyncListener listener) {
+            delegate.addListener(listener);
+        }
+
+        @Override
+        public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+            delegate.addListener(listener, request, response);
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(Class<T> type) throws ServletException {
+            return delegate.createListener(type);
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+            delegate.setTimeout(timeout);
+        }
+
+        @Override
+        public long getTimeout() {
+            return delegate.getTimeout();
+        }
+    }
+
+    /** Passes the status and headers through and keeps the body that would have been written. */
+    private static class BodyCapture extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final ServletOutputStream stream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                body.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        BodyCapture(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.wiremock.ui.model.ServerThreadStats;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the mock server's Jetty thread pool and keeps hold of it so its saturation can
+ * be reported. In {@code virtual} mode the pool still runs Jetty's acceptors and
+ * selectors, but request handling is dispatched to virtual threads, so a stub that
+ * blocks no longer ties up one of a fixed number of platform threads.
+ */
+@Slf4j
+@Component
+public class ServerThreadPoolFactory implements ThreadPoolFactory {
+
+    public enum Mode { PLATFORM, VIRTUAL }
+
+    @Value("${wiremock.server.threads.mode:platform}")
+    private String mode;
+
+    @Value("${wiremock.server.threads.async-responses:true}")
+    private boolean asyncResponses;
+
+    @Value("${wiremock.server.threads.async-response-threads:10}")
+    private int asyncResponseThreads;
+
+    private volatile QueuedThreadPool pool;
+    private volatile boolean virtual;
+
+    @PostConstruct
+    public void validate() {
+        getMode();
+    }
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(options.containerThreads());
+        threadPool.setName("wiremock-server");
+        boolean useVirtual = getMode() == Mode.VIRTUAL;
+        if (useVirtual && !VirtualThreads.areSupported()) {
+            log.warn("Virtual threads are not supported by this JVM, falling back to platform threads");
+            useVirtual = false;
+        }
+        if (useVirtual) {
+            threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+        }
+        virtual = useVirtual;
+        pool = threadPool;
+        return threadPool;
+    }
+
+    public Mode getMode() {
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown server thread mode '" + mode + "', expected platform or virtual");
+        }
+    }
+
+    public boolean isAsyncResponses() {
+        return asyncResponses;
+    }
+
+    public int getAsyncResponseThreads() {
+        return asyncResponseThreads;
+    }
+
+    public ServerThreadStats snapshot() {
+        ServerThreadStats stats = new ServerThreadStats();
+        stats.setMode(virtual ? "virtual" : "platform");
+        stats.setAsyncResponses(asyncResponses);
+        stats.setAsyncResponseThreads(asyncResponses ? asyncResponseThreads : 0);
+        QueuedThreadPool threadPool = pool;
+        if (threadPool == null) {
+            return stats;
+        }
+        stats.setMaxThreads(threadPool.getMaxThreads());
+        stats.setThreads(threadPool.getThreads());
+        stats.setBusyThreads(threadPool.getBusyThreads());
+        stats.setIdleThreads(threadPool.getIdleThreads());
+        stats.setQueuedJobs(threadPool.getQueueSize());
+        stats.setUtilization(threadPool.getUtilizationRate());
+        stats.setSaturated(threadPool.isLowOnThreads());
+        return stats;
+    }
+}
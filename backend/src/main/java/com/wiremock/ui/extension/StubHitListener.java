@@ -0,0 +1,104 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts hits per stub mapping as requests are served. Counting never takes a lock or
+ * touches the database; {@code StubHitService} drains the counters into MongoDB.
+ */
+@Component
+public class StubHitListener implements ServeEventListener, StubLifecycleListener {
+    /** Mapping metadata key holding the id of the {@code Stub} document a mapping was built from. */
+    public static final String STUB_ID_METADATA = "stubId";
+
+    private final Map<UUID, StubHits> hits = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "stub-hits";
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        StubMapping stub = serveEvent.getStubMapping();
+        if (!serveEvent.getWasMatched() || stub == null || stub.getId() == null) {
+            return;
+        }
+        StubHits stubHits = hits.computeIfAbsent(stub.getId(), id -> new StubHits(stubIdOf(stub)));
+        stubHits.count.increment();
+        stubHits.lastHitMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        hits.remove(stub.getId());
+    }
+
+    @Override
+    public void afterStubsReset() {
+        hits.clear();
+    }
+
+    public Map<UUID, StubHits> getHits() {
+        return hits;
+    }
+
+    public StubHits get(UUID mappingId) {
+        return hits.get(mappingId);
+    }
+
+    private static String stubIdOf(StubMapping stub) {
+        Metadata metadata = stub.getMetadata();
+        return metadata != null && metadata.containsKey(STUB_ID_METADATA) ? metadata.getString(STUB_ID_METADATA) : null;
+    }
+
+    public static final class StubHits {
+        private final String stubId;
+        private final LongAdder count = new LongAdder();
+        private volatile long lastHitMillis;
+
+        private StubHits(String stubId) {
+            this.stubId = stubId;
+        }
+
+        /** The stub document this mapping belongs to, or null for mappings created directly in WireMock. */
+        public String getStubId() {
+            return stubId;
+        }
+
+        /** Hits not yet flushed. */
+        public long getPending() {
+            return count.sum();
+        }
+
+        public long getLastHitMillis() {
+            return lastHitMillis;
+        }
+
+        /** Takes the hits counted since the last drain. */
+        public long drain() {
+            return count.sumThenReset();
+        }
+
+        /** Puts back hits that could not be flushed. */
+        public void restore(long drained) {
+            count.add(drained);
+        }
+
+        /** Whether hits were counted since the last drain, including ones put back after a failed flush. */
+        public boolean hasUnflushedHit() {
+            return getPending() > 0;
+        }
+    }
+}
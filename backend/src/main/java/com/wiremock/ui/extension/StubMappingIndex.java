@@ -0,0 +1,210 @@
+package com.wiremock.ui.extension;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buckets stub mappings by HTTP method and URL path. Mappings with an exact URL or path
+ * are found with one hash lookup, path templates and regexes with a literal prefix are
+ * found by walking a character trie along the request path, and anything else (any URL,
+ * regexes without a usable prefix) is kept in a scan bucket that every lookup includes.
+ * Lookups return a superset of the matching mappings; the caller still runs the full match.
+ */
+final class StubMappingIndex {
+    private static final String ANY = RequestMethod.ANY.getName();
+    private static final String REGEX_META = "\\^$.|?*+()[]{}";
+
+    enum Kind { EXACT, PREFIX, SCAN }
+
+    record Key(String method, Kind kind, String path) {
+    }
+
+    private final Map<String, MethodIndex> byMethod = new ConcurrentHashMap<>();
+    private final Map<UUID, Key> keys = new ConcurrentHashMap<>();
+
+    void add(StubMapping mapping) {
+        Key key = keyFor(mapping.getRequest());
+        Key previous = keys.put(mapping.getId(), key);
+        if (previous != null) {
+            remove(previous, mapping.getId());
+        }
+        byMethod.computeIfAbsent(key.method(), method -> new MethodIndex()).add(key, mapping);
+    }
+
+    void remove(UUID id) {
+        Key key = keys.remove(id);
+        if (key != null) {
+            remove(key, id);
+        }
+    }
+
+    void clear() {
+        keys.clear();
+        byMethod.clear();
+    }
+
+    /** Mappings that could match the request, in no particular order and without duplicates. */
+    List<StubMapping> candidatesFor(Request request) {
+        String path = pathOf(request.getUrl());
+        List<StubMapping> candidates = new ArrayList<>();
+        MethodIndex forMethod = byMethod.get(request.getMethod().getName());
+        if (forMethod != null) {
+            forMethod.collect(path, candidates);
+        }
+        MethodIndex forAny = byMethod.get(ANY);
+        if (forAny != null) {
+            forAny.collect(path, candidates);
+        }
+        return candidates;
+    }
+
+    private void remove(Key key, UUID id) {
+        MethodIndex index = byMethod.get(key.method());
+        if (index != null) {
+            index.remove(key, id);
+        }
+    }
+
+    static Key keyFor(RequestPattern pattern) {
+        String method = pattern.getMethod() != null ? pattern.getMethod().getName() : ANY;
+        if (pattern.getUrl() != null) {
+            return new Key(method, Kind.EXACT, pathOf(pattern.getUrl()));
+        }
+        if (pattern.getUrlPath() != null) {
+            return new Key(method, Kind.EXACT, pattern.getUrlPath());
+        }
+        String prefix = "";
+        if (pattern.getUrlPathTemplate() != null) {
+            String template = pattern.getUrlPathTemplate();
+            int variable = template.indexOf('{');
+            prefix = variable >= 0 ? template.substring(0, variable) : template;
+        } else if (pattern.getUrlPathPattern() != null) {
+            prefix = literalPrefix(pattern.getUrlPathPattern());
+        } else if (pattern.getUrlPattern() != null) {
+            prefix = literalPrefix(pattern.getUrlPattern());
+        }
+        return prefix.isEmpty() ? new Key(method, Kind.SCAN, "") : new Key(method, Kind.PREFIX, prefix);
+    }
+
+    /**
+     * The literal text every string matching {@code regex} must start with. Alternation
+     * anywhere gives up, since it may apply to the whole expression.
+     */
+    static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = regex.startsWith("^") ? 1 : 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (REGEX_META.indexOf(c) >= 0) {
+                // These quantifiers make the preceding character optional
+                if ((c == '*' || c == '?' || c == '{') && prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    /** Same as WireMock's own path extraction: everything before the query string. */
+    private static String pathOf(String url) {
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
+    }
+
+    private static final class MethodIndex {
+        private final Map<String, Map<UUID, StubMapping>> exact = new ConcurrentHashMap<>();
+        private final PathTrie prefixes = new PathTrie();
+        private final Map<UUID, StubMapping> scan = new ConcurrentHashMap<>();
+
+        void add(Key key, StubMapping mapping) {
+            switch (key.kind()) {
+                case EXACT -> exact.computeIfAbsent(key.path(), path -> new ConcurrentHashMap<>())
+                    .put(mapping.getId(), mapping);
+                case PREFIX -> prefixes.add(key.path(), mapping);
+                case SCAN -> scan.put(mapping.getId(), mapping);
+            }
+        }
+
+        void remove(Key key, UUID id) {
+            switch (key.kind()) {
+                case EXACT -> exact.computeIfPresent(key.path(), (path, bucket) -> {
+                    bucket.remove(id);
+                    return bucket.isEmpty() ? null : bucket;
+                });
+                case PREFIX -> prefixes.remove(key.path(), id);
+                case SCAN -> scan.remove(id);
+            }
+        }
+
+        void collect(String path, List<StubMapping> candidates) {
+            Map<UUID, StubMapping> bucket = exact.get(path);
+            if (bucket != null) {
+                candidates.addAll(bucket.values());
+            }
+            prefixes.collect(path, candidates);
+            candidates.addAll(scan.values());
+        }
+    }
+
+    /**
+     * Character trie of literal prefixes. Writers are serialized so empty branches can be
+     * pruned safely; readers walk it without locking.
+     */
+    private static final class PathTrie {
+        private final Node root = new Node();
+
+        synchronized void add(String prefix, StubMapping mapping) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+            }
+            node.mappings.put(mapping.getId(), mapping);
+        }
+
+        synchronized void remove(String prefix, UUID id) {
+            Node[] path = new Node[prefix.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                path[i + 1] = path[i].children.get(prefix.charAt(i));
+                if (path[i + 1] == null) {
+                    return;
+                }
+            }
+            path[prefix.length()].mappings.remove(id);
+            for (int i = prefix.length(); i > 0 && path[i].isEmpty(); i--) {
+                path[i - 1].children.remove(prefix.charAt(i - 1));
+            }
+        }
+
+        void collect(String path, List<StubMapping> candidates) {
+            Node node = root;
+            for (int i = 0; i < path.length() && node != null; i++) {
+                node = node.children.get(path.charAt(i));
+                if (node != null && !node.mappings.isEmpty()) {
+                    candidates.addAll(node.mappings.values());
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final Map<UUID, StubMapping> mappings = new ConcurrentHashMap<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && mappings.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.wiremock.ui.journal;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+import com.wiremock.ui.util.HttpEncodings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Converts serve events to journal entries and to the compact binary record kept in
+ * journal segments. A record starts with the fields the in-memory indexes are built
+ * from, so indexes can be rebuilt from disk without decoding whole records.
+ *
+ * <pre>
+ * long timestamp | short status | byte flags | int latency | method | url | stubId
+ * | absoluteUrl | clientIp | headers | queryParams | body | responseHeaders | responseBody
+ * </pre>
+ * Strings are a varint length followed by UTF-8; maps are a varint count of
+ * (key, varint value count, values).
+ */
+final class JournalEntries {
+    static final int FLAG_MATCHED = 1;
+
+    private JournalEntries() {
+    }
+
+    /** The indexed prefix of a record. */
+    record Header(long timestamp, int status, boolean matched, int latencyMillis,
+                  String method, String url, String stubId) {
+    }
+
+    static byte[] encode(ServeEvent event, int maxBodyBytes) {
+        LoggedRequest request = event.getRequest();
+        LoggedResponse response = event.getResponse();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(request.getLoggedDate() != null ? request.getLoggedDate().getTime() : System.currentTimeMillis());
+            out.writeShort(statusOf(event));
+            out.writeByte(event.getWasMatched() ? FLAG_MATCHED : 0);
+            Integer latency = event.getTiming() != null ? event.getTiming().getTotalTime() : null;
+            out.writeInt(latency != null ? latency : 0);
+            writeString(out, request.getMethod() != null ? request.getMethod().getName() : "");
+            writeString(out, request.getUrl());
+            writeString(out, stubIdOf(event));
+            writeString(out, request.getAbsoluteUrl());
+            writeString(out, request.getClientIp());
+            writeHeaders(out, request.getHeaders());
+            writeQueryParams(out, request.getQueryParams());
+            writeBytes(out, request.getBody(), maxBodyBytes);
+            writeHeaders(out, response != null ? response.getHeaders() : null);
+            writeBytes(out, response != null ? responseBody(response, maxBodyBytes) : null, maxBodyBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Header readHeader(ByteBuffer in) {
+        long timestamp = in.getLong();
+        int status = in.getShort();
+        boolean matched = (in.get() & FLAG_MATCHED) != 0;
+        int latency = in.getInt();
+        return new Header(timestamp, status, matched, latency, readString(in), readString(in), emptyToNull(readString(in)));
+    }
+
+    static JournalEntry decode(String id, ByteBuffer in) {
+        Header header = readHeader(in);
+        JournalEntry entry = new JournalEntry();
+        entry.setId(id);
+        entry.setTimestamp(Instant.ofEpochMilli(header.timestamp()));
+        entry.setWasMatched(header.matched());
+        entry.setLatencyMillis(header.latencyMillis());
+        entry.setStubMapping(header.stubId());
+        entry.getRequest().setMethod(header.method());
+        entry.getRequest().setUrl(header.url());
+        entry.getRequest().setAbsoluteUrl(readString(in));
+        entry.getRequest().setClientIp(readString(in));
+        entry.getRequest().setHeaders(readMap(in));
+        entry.getRequest().setQueryParams(readMap(in));
+        entry.getRequest().setBody(emptyToNull(readString(in)));
+        entry.getResponseDefinition().setStatus(header.status());
+        entry.getResponseDefinition().setHeaders(readMap(in));
+        entry.getResponseDefinition().setBody(emptyToNull(readString(in)));
+        return entry;
+    }
+
+    static JournalEntry fromServeEvent(String id, ServeEvent event, int maxBodyBytes) {
+        return decode(id, ByteBuffer.wrap(encode(event, maxBodyBytes)));
+    }
+
+    static boolean matches(JournalEntry entry, RequestQuery query) {
+        JournalEntry.Request request = entry.getRequest();
+        int status = entry.getResponseDefinition().getStatus();
+        long timestamp = entry.getTimestamp().toEpochMilli();
+        return (query.getUrl() == null || (request.getUrl() != null && request.getUrl().startsWith(query.getUrl())))
+            && (query.getMethod() == null || query.getMethod().equalsIgnoreCase(request.getMethod()))
+            && (query.getStatus() == null || query.getStatus() == status)
+            && (query.getStatusClass() == null || query.getStatusClass() == status / 100)
+            && (query.getMatched() == null || query.getMatched() == entry.isWasMatched())
+            && (query.getStubId() == null || query.getStubId().equals(entry.getStubMapping()))
+            && (query.getFrom() == null || timestamp >= query.getFrom())
+            && (query.getTo() == null || timestamp < query.getTo());
+    }
+
+    private static int statusOf(ServeEvent event) {
+        if (event.getResponse() != null) {
+            return event.getResponse().getStatus();
+        }
+        return event.getResponseDefinition() != null ? event.getResponseDefinition().getStatus() : 0;
+    }
+
+    private static String stubIdOf(ServeEvent event) {
+        return event.getWasMatched() && event.getStubMapping() != null && event.getStubMapping().getId() != null
+            ? event.getStubMapping().getId().toString() : "";
+    }
+
+    private static void writeHeaders(DataOutputStream out, HttpHeaders headers) throws IOException {
+        if (headers == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, headers.size());
+        for (HttpHeader header : headers.all()) {
+            writeValues(out, header.key(), header.values());
+        }
+    }
+
+    private static void writeQueryParams(DataOutputStream out, Map<String, QueryParameter> params) throws IOException {
+        if (params == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, params.size());
+        for (Map.Entry<String, QueryParameter> param : params.entrySet()) {
+            writeValues(out, param.getKey(), param.getValue().values());
+        }
+    }
+
+    private static void writeValues(DataOutputStream out, String key, List<String> values) throws IOException {
+        writeString(out, key);
+        writeVarInt(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    /**
+     * Gzip-encoded bodies, such as pre-compressed stub responses, are journalled decoded.
+     * The logged body may itself be truncated, so whatever inflates cleanly is kept.
+     */
+    private static byte[] responseBody(LoggedResponse response, int maxBytes) {
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0 || !HttpEncodings.isGzipEncoded(response.getHeaders())) {
+            return body;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while (decoded.size() < maxBytes && (read = in.read(buffer)) > 0) {
+                decoded.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            // Truncated stream: keep what was decoded
+        }
+        return decoded.toByteArray();
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value, int maxBytes) throws IOException {
+        int length = value == null ? 0 : Math.min(value.length, maxBytes);
+        writeVarInt(out, length);
+        if (length > 0) {
+            out.write(value, 0, length);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return "";
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, List<String>> readMap(ByteBuffer in) {
+        int size = readVarInt(in);
+        Map<String, List<String>> map = new LinkedHashMap<>(Math.max(4, size * 2));
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            int count = readVarInt(in);
+            List<String> values = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                values.add(readString(in));
+            }
+            map.put(key, values);
+        }
+        return map;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
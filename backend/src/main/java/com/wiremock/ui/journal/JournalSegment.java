@@ -0,0 +1,351 @@
+package com.wiremock.ui.journal;
+
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A memory-mapped journal file holding length-prefixed records, plus columnar
+ * in-memory indexes (timestamp, status, flags, and dictionary codes for method,
+ * URL and stub id) so queries only touch the mapped bytes of records they return.
+ *
+ * <p>Appends come from a single writer holding the store's lock. Readers are lock-free:
+ * every column is written before {@link #count} is published, and only grows by copying.
+ */
+final class JournalSegment {
+    private static final int INITIAL_CAPACITY = 1024;
+    // High-cardinality URLs stop getting codes; those records are matched on their bytes
+    private static final int URL_DICTIONARY_LIMIT = 8192;
+
+    private final Path path;
+    private final long baseSeq;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int writePosition;
+
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private short[] statuses = new short[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private byte[] methodCodes = new byte[INITIAL_CAPACITY];
+    private int[] urlCodes = new int[INITIAL_CAPACITY];
+    private int[] stubCodes = new int[INITIAL_CAPACITY];
+    private final Dictionary methods = new Dictionary(Byte.MAX_VALUE);
+    private final Dictionary urls = new Dictionary(URL_DICTIONARY_LIMIT);
+    private final Dictionary stubIds = new Dictionary(Integer.MAX_VALUE);
+
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    private volatile int count;
+
+    private JournalSegment(Path path, long baseSeq, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseSeq = baseSeq;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+    }
+
+    static JournalSegment create(Path directory, long baseSeq, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(baseSeq));
+        return new JournalSegment(path, baseSeq, map(path, capacity));
+    }
+
+    /**
+     * Maps an existing segment and rebuilds its indexes, stopping at the first
+     * empty or unreadable record.
+     */
+    static JournalSegment open(Path path, int minCapacity) throws IOException {
+        String name = path.getFileName().toString();
+        long baseSeq = Long.parseLong(name.substring(0, name.indexOf('.')));
+        JournalSegment segment = new JournalSegment(path, baseSeq, map(path, Math.max(minCapacity, (int) Files.size(path))));
+        int position = 0;
+        while (position + 4 <= segment.capacity) {
+            int length = segment.buffer.getInt(position);
+            if (length <= 0 || position + 4 + length > segment.capacity) {
+                break;
+            }
+            try {
+                segment.index(position, JournalEntries.readHeader(segment.buffer.slice(position + 4, length)));
+            } catch (RuntimeException e) {
+                break;
+            }
+            position += 4 + length;
+        }
+        segment.writePosition = position;
+        return segment;
+    }
+
+    static boolean isSegmentFile(Path path) {
+        return path.getFileName().toString().endsWith(".seg");
+    }
+
+    boolean hasRoomFor(int recordLength) {
+        return writePosition + 4 + recordLength <= capacity;
+    }
+
+    /** Appends a record; the caller holds the store's write lock and has checked {@link #hasRoomFor}. */
+    void append(byte[] record, JournalEntries.Header header) {
+        int position = writePosition;
+        buffer.put(position + 4, record);
+        buffer.putInt(position, record.length);
+        writePosition = position + 4 + record.length;
+        index(position, header);
+    }
+
+    JournalEntry read(int index) {
+        int offset = offsets[index];
+        int length = buffer.getInt(offset);
+        return JournalEntries.decode(Long.toString(baseSeq + index), buffer.slice(offset + 4, length));
+    }
+
+    /**
+     * Resolves the query against this segment's dictionaries. Returns null when
+     * nothing in the segment can match.
+     */
+    Matcher matcher(RequestQuery query) {
+        int n = count;
+        if (n == 0
+            || (query.getFrom() != null && maxTimestamp < query.getFrom())
+            || (query.getTo() != null && minTimestamp >= query.getTo())) {
+            return null;
+        }
+        int methodCode = -1;
+        if (query.getMethod() != null) {
+            methodCode = methods.codeOf(query.getMethod().toUpperCase());
+            if (methodCode < 0) {
+                return null;
+            }
+        }
+        int stubCode = -1;
+        if (query.getStubId() != null) {
+            stubCode = stubIds.codeOf(query.getStubId());
+            if (stubCode < 0) {
+                return null;
+            }
+        }
+        BitSet urlMatches = null;
+        byte[] urlPrefix = null;
+        if (query.getUrl() != null) {
+            urlMatches = urls.matching(url -> url.startsWith(query.getUrl()));
+            urlPrefix = query.getUrl().getBytes(StandardCharsets.UTF_8);
+        }
+        return new Matcher(n, query, methodCode, stubCode, urlMatches, urlPrefix);
+    }
+
+    long baseSeq() {
+        return baseSeq;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /** Deletes the file. The mapping stays readable until it is garbage collected. */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private void index(int offset, JournalEntries.Header header) {
+        int i = count;
+        if (i == offsets.length) {
+            grow();
+        }
+        offsets[i] = offset;
+        timestamps[i] = header.timestamp();
+        statuses[i] = (short) header.status();
+        flags[i] = (byte) (header.matched() ? JournalEntries.FLAG_MATCHED : 0);
+        methodCodes[i] = (byte) methods.add(header.method());
+        urlCodes[i] = urls.add(header.url());
+        stubCodes[i] = header.stubId() == null ? -1 : stubIds.add(header.stubId());
+        minTimestamp = Math.min(minTimestamp, header.timestamp());
+        maxTimestamp = Math.max(maxTimestamp, header.timestamp());
+        count = i + 1;
+    }
+
+    private void grow() {
+        int size = offsets.length * 2;
+        offsets = Arrays.copyOf(offsets, size);
+        timestamps = Arrays.copyOf(timestamps, size);
+        statuses = Arrays.copyOf(statuses, size);
+        flags = Arrays.copyOf(flags, size);
+        methodCodes = Arrays.copyOf(methodCodes, size);
+        urlCodes = Arrays.copyOf(urlCodes, size);
+        stubCodes = Arrays.copyOf(stubCodes, size);
+    }
+
+    private boolean urlStartsWith(int index, byte[] prefix) {
+        ByteBuffer record = buffer.slice(offsets[index] + 4, buffer.getInt(offsets[index]));
+        record.position(15);
+        skipString(record);
+        int length = readVarInt(record);
+        if (length < prefix.length) {
+            return false;
+        }
+        for (byte b : prefix) {
+            if (record.get() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void skipString(ByteBuffer in) {
+        int length = readVarInt(in);
+        in.position(in.position() + length);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    private static String fileName(long baseSeq) {
+        return String.format("%020d.seg", baseSeq);
+    }
+
+    /** Evaluates one query against the columns of this segment. */
+    final class Matcher {
+        private final int count;
+        private final RequestQuery query;
+        private final int methodCode;
+        private final int stubCode;
+        private final BitSet urlMatches;
+        private final byte[] urlPrefix;
+
+        private Matcher(int count, RequestQuery query, int methodCode, int stubCode, BitSet urlMatches, byte[] urlPrefix) {
+            this.count = count;
+            this.query = query;
+            this.methodCode = methodCode;
+            this.stubCode = stubCode;
+            this.urlMatches = urlMatches;
+            this.urlPrefix = urlPrefix;
+        }
+
+        /** The index of the newest record before {@code beforeSeq}, or -1. */
+        int startBefore(long beforeSeq) {
+            return (int) Math.min(count, Math.max(0, beforeSeq - baseSeq)) - 1;
+        }
+
+        boolean matches(int i) {
+            int status = statuses[i];
+            if ((query.getStatus() != null && status != query.getStatus())
+                || (query.getStatusClass() != null && status / 100 != query.getStatusClass())
+                || (query.getMatched() != null && ((flags[i] & JournalEntries.FLAG_MATCHED) != 0) != query.getMatched())
+                || (methodCode >= 0 && methodCodes[i] != methodCode)
+                || (stubCode >= 0 && stubCodes[i] != stubCode)
+                || (query.getFrom() != null && timestamps[i] < query.getFrom())
+                || (query.getTo() != null && timestamps[i] >= query.getTo())) {
+                return false;
+            }
+            if (urlPrefix != null) {
+                int urlCode = urlCodes[i];
+                return urlCode >= 0 ? urlMatches.get(urlCode) : urlStartsWith(i, urlPrefix);
+            }
+            return true;
+        }
+
+        JournalEntry read(int i) {
+            return JournalSegment.this.read(i);
+        }
+
+        String idOf(int i) {
+            return Long.toString(baseSeq + i);
+        }
+    }
+
+    /**
+     * Interns values to small integer codes. Only the writer adds; readers see
+     * entries up to the published size.
+     */
+    private static final class Dictionary {
+        private final int limit;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private volatile String[] values = new String[16];
+        private volatile int size;
+
+        private Dictionary(int limit) {
+            this.limit = limit;
+        }
+
+        /** Returns the code for a value, or -1 once the dictionary is full. */
+        private int add(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size >= limit) {
+                return -1;
+            }
+            int next = size;
+            if (next == values.length) {
+                values = Arrays.copyOf(values, next * 2);
+            }
+            values[next] = value;
+            codes.put(value, next);
+            size = next + 1;
+            return next;
+        }
+
+        private int codeOf(String value) {
+            int n = size;
+            String[] snapshot = values;
+            for (int i = 0; i < Math.min(n, snapshot.length); i++) {
+                if (value.equals(snapshot[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private BitSet matching(Predicate<String> predicate) {
+            int n = size;
+            String[] snapshot = values;
+            BitSet matches = new BitSet(n);
+            for (int i = 0; i < Math.min(n, snapshot.length); i++) {
+                if (predicate.test(snapshot[i])) {
+                    matches.set(i);
+                }
+            }
+            return matches;
+        }
+    }
+}
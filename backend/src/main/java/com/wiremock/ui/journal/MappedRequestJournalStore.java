@@ -0,0 +1,236 @@
+package com.wiremock.ui.journal;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.wiremock.ui.dto.RequestPage;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the request journal in memory-mapped segment files under
+ * {@code wiremock.journal.dir}. Records live outside the heap; only compact per-segment
+ * index columns stay in memory. Old segments are deleted by total size and by age.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wiremock.journal.store", havingValue = "mapped", matchIfMissing = true)
+public class MappedRequestJournalStore implements RequestJournalStore {
+    private static final long MB = 1024 * 1024;
+
+    @Value("${wiremock.journal.dir:${wiremock.server.root-dir}/journal}")
+    private String directory;
+
+    @Value("${wiremock.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${wiremock.journal.max-size-mb:2048}")
+    private long maxSizeMb;
+
+    @Value("${wiremock.journal.max-age-hours:24}")
+    private long maxAgeHours;
+
+    @Value("${wiremock.journal.max-body-bytes:65536}")
+    private int maxBodyBytes;
+
+    private final Object writeLock = new Object();
+    // Oldest first; replaced as a whole so readers can iterate without locking
+    private volatile List<JournalSegment> segments = List.of();
+    private JournalSegment active;
+    private long nextSeq;
+    private Path root;
+
+    @PostConstruct
+    public void open() throws IOException {
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        List<JournalSegment> loaded = new ArrayList<>();
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path path : files.filter(JournalSegment::isSegmentFile).sorted().toList()) {
+                try {
+                    loaded.add(JournalSegment.open(path, segmentCapacity()));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable journal segment {}: {}", path, e.getMessage());
+                }
+            }
+        }
+        synchronized (writeLock) {
+            segments = List.copyOf(loaded);
+            if (!loaded.isEmpty()) {
+                active = loaded.get(loaded.size() - 1);
+                nextSeq = active.baseSeq() + active.count();
+            }
+            enforceRetention();
+        }
+        log.info("Request journal opened at {} with {} entries in {} segments", root, size(), segments.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (writeLock) {
+            if (active != null) {
+                active.force();
+            }
+        }
+    }
+
+    @Override
+    public String append(ServeEvent serveEvent) {
+        // Encode outside the lock; the lock only covers the copy into the mapped segment
+        byte[] record = JournalEntries.encode(serveEvent, maxBodyBytes);
+        if (record.length + 4 > segmentCapacity()) {
+            log.warn("Dropping journal record of {} bytes, larger than a segment", record.length);
+            return null;
+        }
+        JournalEntries.Header header = JournalEntries.readHeader(ByteBuffer.wrap(record));
+        synchronized (writeLock) {
+            try {
+                if (active == null || !active.hasRoomFor(record.length)) {
+                    roll();
+                }
+                active.append(record, header);
+                return Long.toString(nextSeq++);
+            } catch (IOException e) {
+                log.error("Failed to append to the request journal: {}", e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public RequestPage<JournalEntry> query(RequestQuery query, int limit) {
+        long beforeSeq = parseCursor(query.getBefore());
+        List<JournalEntry> items = new ArrayList<>(Math.min(limit, 256));
+        List<JournalSegment> snapshot = segments;
+        for (int s = snapshot.size() - 1; s >= 0; s--) {
+            JournalSegment segment = snapshot.get(s);
+            if (segment.baseSeq() >= beforeSeq) {
+                continue;
+            }
+            JournalSegment.Matcher matcher = segment.matcher(query);
+            if (matcher == null) {
+                continue;
+            }
+            for (int i = matcher.startBefore(beforeSeq); i >= 0; i--) {
+                if (!matcher.matches(i)) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    return new RequestPage<>(items, items.get(limit - 1).getId());
+                }
+                items.add(matcher.read(i));
+            }
+        }
+        return new RequestPage<>(items, null);
+    }
+
+    @Override
+    public Optional<JournalEntry> get(String id) {
+        long seq;
+        try {
+            seq = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        for (JournalSegment segment : segments) {
+            if (seq >= segment.baseSeq() && seq < segment.baseSeq() + segment.count()) {
+                return Optional.of(segment.read((int) (seq - segment.baseSeq())));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (JournalSegment segment : segments) {
+            size += segment.count();
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            for (JournalSegment segment : segments) {
+                deleteQuietly(segment);
+            }
+            segments = List.of();
+            active = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        active = JournalSegment.create(root, nextSeq, segmentCapacity());
+        List<JournalSegment> updated = new ArrayList<>(segments);
+        updated.add(active);
+        segments = List.copyOf(updated);
+        enforceRetention();
+    }
+
+    /** Applies the age limit to a journal that is not rolling over to new segments. */
+    @Scheduled(fixedDelayString = "${wiremock.journal.retention-check-interval-ms:3600000}",
+        initialDelayString = "${wiremock.journal.retention-check-interval-ms:3600000}")
+    public void enforceRetentionPeriodically() {
+        synchronized (writeLock) {
+            enforceRetention();
+        }
+    }
+
+    /** Drops the oldest segments past the size or age limit, never the active one. */
+    private void enforceRetention() {
+        List<JournalSegment> retained = new ArrayList<>(segments);
+        long totalBytes = retained.stream().mapToLong(JournalSegment::capacity).sum();
+        long oldestAllowed = System.currentTimeMillis() - maxAgeHours * 3_600_000;
+        while (retained.size() > 1
+            && (totalBytes > maxSizeMb * MB || retained.get(0).maxTimestamp() < oldestAllowed)) {
+            JournalSegment oldest = retained.remove(0);
+            totalBytes -= oldest.capacity();
+            deleteQuietly(oldest);
+        }
+        if (retained.size() != segments.size()) {
+            segments = List.copyOf(retained);
+        }
+    }
+
+    private void deleteQuietly(JournalSegment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.warn("Failed to delete journal segment: {}", e.getMessage());
+        }
+    }
+
+    private int segmentCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE, segmentSizeMb * MB);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
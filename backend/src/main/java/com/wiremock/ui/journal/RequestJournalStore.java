@@ -0,0 +1,29 @@
+package com.wiremock.ui.journal;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.wiremock.ui.dto.RequestPage;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+
+import java.util.Optional;
+
+/**
+ * Where served requests are kept for the request journal. The implementation is
+ * chosen with {@code wiremock.journal.store}.
+ */
+public interface RequestJournalStore {
+
+    /**
+     * Called from the serving thread once a request has been answered. Returns the
+     * id the entry can be fetched by, or null if it could not be stored.
+     */
+    String append(ServeEvent serveEvent);
+
+    RequestPage<JournalEntry> query(RequestQuery query, int limit);
+
+    Optional<JournalEntry> get(String id);
+
+    long size();
+
+    void clear();
+}
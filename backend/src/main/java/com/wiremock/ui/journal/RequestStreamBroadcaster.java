@@ -0,0 +1,234 @@
+package com.wiremock.ui.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes served requests to Server-Sent Event subscribers. Each event is converted and
+ * serialized once, then offered to the bounded buffer of every subscriber whose filter
+ * matches. A small shared pool drains the buffers, so a slow client only ever loses its
+ * own events, according to its overflow policy.
+ */
+@Slf4j
+@Component
+public class RequestStreamBroadcaster {
+
+    public enum Overflow {
+        /** Discard the oldest buffered event to make room. */
+        DROP_OLDEST,
+        /** Discard the incoming event. */
+        DROP_NEWEST,
+        /** Once the buffer is half full, keep only one in {@code sample-every} events. */
+        SAMPLE;
+
+        public static Overflow parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown overflow policy '" + value
+                    + "', expected drop-oldest, drop-newest or sample");
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeats;
+
+    @Value("${wiremock.journal.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${wiremock.journal.stream.overflow:drop-oldest}")
+    private String defaultOverflow;
+
+    @Value("${wiremock.journal.stream.sample-every:10}")
+    private int sampleEvery;
+
+    @Value("${wiremock.journal.stream.max-subscribers:50}")
+    private int maxSubscribers;
+
+    @Value("${wiremock.journal.stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${wiremock.journal.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${wiremock.journal.max-body-bytes:65536}")
+    private int maxBodyBytes;
+
+    public RequestStreamBroadcaster(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("request-stream-"));
+        heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("request-stream-heartbeat-"));
+        // Comments keep proxies from closing idle streams and reveal clients that went away
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+            heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    public SseEmitter subscribe(RequestQuery filter, String overflow) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many request stream subscribers (max " + maxSubscribers + ")");
+        }
+        Overflow policy = Overflow.parse(overflow != null ? overflow : defaultOverflow);
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, filter, policy);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Called from the serving thread after the event has been journalled under {@code id}. */
+    public void publish(String id, ServeEvent serveEvent) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        JournalEntry entry = JournalEntries.fromServeEvent(id, serveEvent, maxBodyBytes);
+        String json = null;
+        for (Subscriber subscriber : subscribers) {
+            if (!JournalEntries.matches(entry, subscriber.filter)) {
+                continue;
+            }
+            if (json == null) {
+                try {
+                    json = objectMapper.writeValueAsString(entry);
+                } catch (JsonProcessingException e) {
+                    log.warn("Failed to serialize request {} for streaming: {}", id, e.getMessage());
+                    return;
+                }
+            }
+            subscriber.offer(new StreamEvent(entry.getId(), json));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record StreamEvent(String id, String json) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final RequestQuery filter;
+        private final Overflow overflow;
+        private final ArrayBlockingQueue<StreamEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong offered = new AtomicLong();
+
+        private Subscriber(SseEmitter emitter, RequestQuery filter, Overflow overflow) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.overflow = overflow;
+        }
+
+        private void offer(StreamEvent event) {
+            switch (overflow) {
+                case DROP_NEWEST -> {
+                    if (!buffer.offer(event)) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!buffer.offer(event)) {
+                        if (buffer.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                }
+                case SAMPLE -> {
+                    boolean sampledOut = buffer.size() >= bufferSize / 2
+                        && offered.getAndIncrement() % sampleEvery != 0;
+                    if (sampledOut || !buffer.offer(event)) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event().id(event.id()).name("request").data(event.json()));
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("dropped").data(lost));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event may have arrived between the last poll and clearing the flag
+            if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            buffer.clear();
+            emitter.completeWithError(new IOException("Request stream client disconnected"));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.wiremock.ui.journal;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.wiremock.ui.dto.RequestPage;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.model.JournalEntry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads WireMock's own in-memory journal, bounded by
+ * {@code wiremock.server.max-request-journal-entries}.
+ */
+@Component
+@ConditionalOnProperty(name = "wiremock.journal.store", havingValue = "wiremock")
+public class WireMockRequestJournalStore implements RequestJournalStore {
+    // Looked up lazily: the server depends on the listener that feeds the journal store
+    private final ObjectProvider<WireMockServer> wireMockServer;
+
+    public WireMockRequestJournalStore(ObjectProvider<WireMockServer> wireMockServer) {
+        this.wireMockServer = wireMockServer;
+    }
+
+    @Override
+    public String append(ServeEvent serveEvent) {
+        // WireMock journals the event itself
+        return serveEvent.getId().toString();
+    }
+
+    @Override
+    public RequestPage<JournalEntry> query(RequestQuery query, int limit) {
+        List<ServeEvent> events = wireMockServer.getObject().getAllServeEvents();
+        List<JournalEntry> items = new ArrayList<>();
+        // Events are newest first; the cursor is the id of the last event on the previous page
+        boolean afterCursor = query.getBefore() == null;
+        String nextCursor = null;
+        for (ServeEvent event : events) {
+            if (!afterCursor) {
+                afterCursor = event.getId().toString().equals(query.getBefore());
+                continue;
+            }
+            JournalEntry entry = JournalEntries.fromServeEvent(event.getId().toString(), event, Integer.MAX_VALUE);
+            if (!JournalEntries.matches(entry, query)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                nextCursor = items.get(limit - 1).getId();
+                break;
+            }
+            items.add(entry);
+        }
+        return new RequestPage<>(items, nextCursor);
+    }
+
+    @Override
+    public Optional<JournalEntry> get(String id) {
+        return wireMockServer.getObject().getAllServeEvents().stream()
+            .filter(event -> event.getId().toString().equals(id))
+            .findFirst()
+            .map(event -> JournalEntries.fromServeEvent(id, event, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public long size() {
+        return wireMockServer.getObject().getAllServeEvents().size();
+    }
+
+    @Override
+    public void clear() {
+        wireMockServer.getObject().resetRequests();
+    }
+}
@@ -0,0 +1,21 @@
+package com.wiremock.ui.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A response body stored on disk under WireMock's {@code __files} directory. Stubs
+ * reference it by {@code bodyFileName}; the id is the SHA-256 of the content.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BodyFile {
+    private String id;
+    private String bodyFileName;
+    private long size;
+    private Instant createdAt;
+}
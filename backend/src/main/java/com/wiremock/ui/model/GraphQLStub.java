@@ -2,6 +2,7 @@ package com.wiremock.ui.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -11,12 +12,14 @@ public class GraphQLStub {
     @Id
     private String id;
 
+    @Indexed
     private String name;
 
     private String operation;
 
     private String operationType;
     
+    @Indexed
     private String operationName;
     
     private String query;
@@ -27,6 +30,7 @@ public class GraphQLStub {
     
     private Integer priority;
     
+    @Indexed
     private String scenarioName;
     
     private String requiredScenarioState;
@@ -35,6 +39,7 @@ public class GraphQLStub {
 
     private boolean persistent;
 
+    @Indexed
     private boolean enabled = true;
 
     private String metadata;
@@ -0,0 +1,39 @@
+package com.wiremock.ui.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One served request as kept by the request journal store.
+ */
+@Data
+public class JournalEntry {
+    private String id;
+    private Instant timestamp;
+    private Request request = new Request();
+    private ResponseDefinition responseDefinition = new ResponseDefinition();
+    private boolean wasMatched;
+    private String stubMapping;
+    private int latencyMillis;
+
+    @Data
+    public static class Request {
+        private String method;
+        private String url;
+        private String absoluteUrl;
+        private String clientIp;
+        private Map<String, List<String>> headers;
+        private Map<String, List<String>> queryParams;
+        private String body;
+    }
+
+    @Data
+    public static class ResponseDefinition {
+        private int status;
+        private Map<String, List<String>> headers;
+        private String body;
+    }
+}
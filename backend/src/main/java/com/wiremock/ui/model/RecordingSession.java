@@ -0,0 +1,28 @@
+package com.wiremock.ui.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A named recording of traffic to one upstream target. Requests whose URL matches
+ * {@code urlPattern} and that carry all of {@code headers} are proxied to the target and
+ * stored as stubs tagged with the session's id, which playback selects them by.
+ */
+@Data
+public class RecordingSession {
+    private String id;
+    private String name;
+    private String targetUrl;
+    private String urlPattern;
+    private Map<String, String> headers;
+    private RecordingStatus status;
+    private Instant startedAt;
+    private Instant stoppedAt;
+    private int recordedCount;
+    private int storedCount;
+    private int duplicateCount;
+    private int bodyFileCount;
+    private int failedCount;
+}
@@ -8,6 +8,10 @@ public class RecordingStatusResponse {
     
     private RecordingStatus status;
     private String targetUrl;
+    private String recordingId;
+    private int recordedCount;
+    private int storedCount;
+    private int duplicateCount;
     
     public RecordingStatusResponse() {
         // Default constructor for serialization
@@ -28,4 +32,36 @@ public class RecordingStatusResponse {
     public void setTargetUrl(String targetUrl) {
         this.targetUrl = targetUrl;
     }
-} 
\ No newline at end of file
+    
+    public String getRecordingId() {
+        return recordingId;
+    }
+    
+    public void setRecordingId(String recordingId) {
+        this.recordingId = recordingId;
+    }
+    
+    public int getRecordedCount() {
+        return recordedCount;
+    }
+    
+    public void setRecordedCount(int recordedCount) {
+        this.recordedCount = recordedCount;
+    }
+    
+    public int getStoredCount() {
+        return storedCount;
+    }
+    
+    public void setStoredCount(int storedCount) {
+        this.storedCount = storedCount;
+    }
+    
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+    
+    public void setDuplicateCount(int duplicateCount) {
+        this.duplicateCount = duplicateCount;
+    }
+}
@@ -0,0 +1,45 @@
+package com.wiremock.ui.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Progress and results of a replay run. Counts and latencies cover the requests
+ * completed so far, so a running replay can be watched as it goes.
+ */
+@Data
+public class ReplayReport {
+    private String id;
+    private String source;
+    private String targetUrl;
+    private String status;
+    private String error;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long plannedRequests;
+    private long sent;
+    private long completed;
+    private long failed;
+    private long inFlight;
+    private Map<String, Long> statusClasses;
+    private long bytesReceived;
+    private double elapsedSeconds;
+    private double throughputPerSecond;
+    /** From when each request was due, so time spent waiting for a concurrency slot counts. */
+    private Latency latency;
+    /** From when each request was actually sent. */
+    private Latency serviceTime;
+
+    /** Milliseconds; percentiles are accurate to about 12%. */
+    @Data
+    public static class Latency {
+        private double mean;
+        private double max;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+    }
+}
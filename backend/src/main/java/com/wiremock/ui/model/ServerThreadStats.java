@@ -0,0 +1,21 @@
+package com.wiremock.ui.model;
+
+import lombok.Data;
+
+/**
+ * Thread usage of the mock server. In virtual mode the pool counts only cover Jetty's
+ * own platform threads; requests in flight run on virtual threads outside it.
+ */
+@Data
+public class ServerThreadStats {
+    private String mode;
+    private boolean asyncResponses;
+    private int asyncResponseThreads;
+    private int maxThreads;
+    private int threads;
+    private int busyThreads;
+    private int idleThreads;
+    private int queuedJobs;
+    private double utilization;
+    private boolean saturated;
+}
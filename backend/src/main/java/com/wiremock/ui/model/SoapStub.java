@@ -2,6 +2,7 @@ package com.wiremock.ui.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -10,10 +11,12 @@ public class SoapStub {
     @Id
     private String id;
 
+    @Indexed
     private String name;
 
     private String wsdlUrl;
 
+    @Indexed
     private String soapAction;
 
     private String soapVersion;
@@ -28,12 +31,14 @@ public class SoapStub {
 
     private Integer priority;
 
+    @Indexed
     private String scenarioName;
 
     private String scenarioState;
 
     private boolean persistent;
 
+    @Indexed
     private boolean enabled = true;
 
     private String metadata;
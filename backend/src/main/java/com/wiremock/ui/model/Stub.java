@@ -2,23 +2,40 @@ package com.wiremock.ui.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.time.Instant;
+
 @Data
 @Document(collection = "stubs")
+@CompoundIndex(name = "request_method_url", def = "{'requestMethod': 1, 'requestUrl': 1}")
+// Hit sorts break ties by _id, so the cursor pages off an index in either direction
+@CompoundIndex(name = "hit_count_id", def = "{'hitCount': 1, '_id': 1}")
+@CompoundIndex(name = "last_hit_at_id", def = "{'lastHitAt': 1, '_id': 1}")
 public class Stub {
     @Id
     private String id;
 
+    @Indexed
     private String name;
 
     private String request;
 
+    /** Upper-cased {@code method} of the request, ANY when it has none; kept by the repository. */
+    private String requestMethod;
+
+    /** The first of the request's url, urlPath, urlPattern and urlPathPattern; kept by the repository. */
+    @Indexed
+    private String requestUrl;
+
     private String response;
 
     private Integer priority;
 
+    @Indexed
     private String scenarioName;
 
     private String requiredScenarioState;
@@ -27,7 +44,21 @@ public class Stub {
 
     private boolean persistent;
 
+    // Lets the dashboard count active stubs from the index alone
+    @Indexed
     private boolean enabled = true;
 
     private String metadata;
+
+    /** Incremented on every update through the stub API. */
+    private long version;
+
+    /** Requests matched by this stub, flushed from in-memory counters by {@code StubHitService}. */
+    private long hitCount;
+
+    private Instant lastHitAt;
+
+    /** The recording session this stub was captured in; null for stubs authored by hand. */
+    @Indexed
+    private String recordingId;
 }
@@ -0,0 +1,42 @@
+package com.wiremock.ui.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimeSeriesWindow {
+    private String window;
+    private long durationSeconds;
+    private long resolutionSeconds;
+    private long requests;
+    private long matched;
+    private long unmatched;
+    private double requestsPerSecond;
+    private Map<String, Long> statusClasses;
+    private LatencySummary latency;
+    private List<Point> points;
+
+    /** Latencies in milliseconds; percentiles are accurate to about 12%. */
+    @Data
+    public static class LatencySummary {
+        private double mean;
+        private long max;
+        private long p50;
+        private long p90;
+        private long p99;
+        private long p999;
+    }
+
+    @Data
+    public static class Point {
+        private long timestamp;
+        private long requests;
+        private long unmatched;
+        private long errors;
+        private double meanLatency;
+    }
+}
@@ -0,0 +1,82 @@
+package com.wiremock.ui.replay;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of latencies in microseconds, safe to record into from many
+ * threads. Values below 16 get a bin each; above that each power of two is split into 8
+ * bins, so percentiles are accurate to about 12% whatever the range.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BINS = 16;
+    private static final int SUB_BINS = 8;
+    // 2^36 microseconds is about 19 hours
+    private static final int MAX_EXPONENT = 36;
+    private static final int BINS = LINEAR_BINS + (MAX_EXPONENT - 3) * SUB_BINS;
+
+    private final AtomicLongArray bins = new AtomicLongArray(BINS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        bins.incrementAndGet(binFor(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public double mean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /** The latency at or below which {@code quantile} of the recorded values fall. */
+    public long percentile(double quantile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * quantile));
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += bins.get(bin);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bin), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int binFor(long value) {
+        if (value < LINEAR_BINS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BINS - 1;
+        }
+        int sub = (int) (value >> (exponent - 3)) & (SUB_BINS - 1);
+        return LINEAR_BINS + (exponent - 4) * SUB_BINS + sub;
+    }
+
+    private static long upperBoundOf(int bin) {
+        if (bin < LINEAR_BINS) {
+            return bin;
+        }
+        int exponent = (bin - LINEAR_BINS) / SUB_BINS + 4;
+        int sub = (bin - LINEAR_BINS) % SUB_BINS;
+        long width = 1L << (exponent - 3);
+        return ((SUB_BINS + sub) * width) + width - 1;
+    }
+}
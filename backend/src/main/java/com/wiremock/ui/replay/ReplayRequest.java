@@ -0,0 +1,12 @@
+package com.wiremock.ui.replay;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One request to replay. {@code offsetMillis} is when it was originally sent, relative
+ * to the first request of the traffic; {@code url} is the path and query only.
+ */
+public record ReplayRequest(long offsetMillis, String method, String url,
+                            Map<String, List<String>> headers, byte[] body) {
+}
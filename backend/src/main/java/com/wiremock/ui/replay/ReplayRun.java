@@ -0,0 +1,321 @@
+package com.wiremock.ui.replay;
+
+import com.wiremock.ui.model.ReplayReport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a list of requests to a target on an open-loop schedule: each request goes out
+ * when it is due, whether or not earlier ones have been answered, so a slow target shows
+ * up as latency rather than as a lower arrival rate. Latency is measured from when a
+ * request was due, which includes any wait for one of the {@code concurrency} slots.
+ *
+ * <p>With virtual threads every request gets its own thread and a semaphore caps those
+ * in flight. Without them a fixed pool of {@code concurrency} platform threads sends,
+ * and due requests queue for it.
+ */
+@Slf4j
+public class ReplayRun {
+
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    // Set by the HTTP client itself, or not allowed to be set at all
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+        "connection", "content-length", "expect", "host", "upgrade", "transfer-encoding",
+        "keep-alive", "proxy-connection", "te", "trailer");
+
+    private final String id;
+    private final String source;
+    private final String targetUrl;
+    private final List<ReplayRequest> requests;
+    private final double timeCompression;
+    private final Double ratePerSecond;
+    private final int repeat;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final Executor executor;
+    private final ExecutorService pool;
+    private final Semaphore slots;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final Object outstandingLock = new Object();
+    private long outstanding;
+
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile long finishNanos;
+    private volatile boolean cancelled;
+    private Thread scheduler;
+
+    /**
+     * @param virtualThreads executor that runs each task on a new virtual thread, or null
+     *                       when the JVM has none
+     */
+    public ReplayRun(String id, String source, String targetUrl, List<ReplayRequest> requests,
+                     double timeCompression, Double ratePerSecond, int concurrency, int repeat,
+                     Duration timeout, Executor virtualThreads) {
+        this.id = id;
+        this.source = source;
+        this.targetUrl = targetUrl.endsWith("/") ? targetUrl.substring(0, targetUrl.length() - 1) : targetUrl;
+        this.requests = requests;
+        this.timeCompression = timeCompression;
+        this.ratePerSecond = ratePerSecond;
+        this.repeat = repeat;
+        this.timeout = timeout;
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+        if (virtualThreads != null) {
+            executor = virtualThreads;
+            pool = null;
+            slots = new Semaphore(concurrency);
+        } else {
+            pool = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "replay-" + id + "-sender");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor = pool;
+            slots = null;
+        }
+        HttpClient.Builder clientBuilder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NEVER);
+        if (virtualThreads != null) {
+            // Never the sender pool: its threads block on the responses the client completes
+            clientBuilder.executor(virtualThreads);
+        }
+        client = clientBuilder.build();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void start() {
+        scheduler = new Thread(this::schedule, "replay-" + id);
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+
+    /** Stops sending; requests already in flight still complete. */
+    public void cancel() {
+        cancelled = true;
+        if (scheduler != null) {
+            scheduler.interrupt();
+        }
+    }
+
+    public ReplayReport report() {
+        long endNanos = finishedAt != null ? finishNanos : System.nanoTime();
+        double elapsedSeconds = (endNanos - startNanos) / 1e9;
+
+        ReplayReport report = new ReplayReport();
+        report.setId(id);
+        report.setSource(source);
+        report.setTargetUrl(targetUrl);
+        report.setStatus(status.name());
+        report.setError(error);
+        report.setStartedAt(startedAt);
+        report.setFinishedAt(finishedAt);
+        report.setPlannedRequests((long) requests.size() * repeat);
+        report.setSent(sent.sum());
+        report.setCompleted(completed.sum());
+        report.setFailed(failed.sum());
+        synchronized (outstandingLock) {
+            report.setInFlight(outstanding);
+        }
+        Map<String, Long> classes = new LinkedHashMap<>();
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            classes.put(statusClass + "xx", statusClasses[statusClass].sum());
+        }
+        classes.put("other", statusClasses[0].sum());
+        report.setStatusClasses(classes);
+        report.setBytesReceived(bytesReceived.sum());
+        report.setElapsedSeconds(elapsedSeconds);
+        report.setThroughputPerSecond(elapsedSeconds > 0 ? completed.sum() / elapsedSeconds : 0);
+        report.setLatency(summarize(latency));
+        report.setServiceTime(summarize(serviceTime));
+        return report;
+    }
+
+    private void schedule() {
+        try {
+            long cycleNanos = cycleNanos();
+            outer:
+            for (int round = 0; round < repeat; round++) {
+                for (int i = 0; i < requests.size(); i++) {
+                    if (cancelled) {
+                        break outer;
+                    }
+                    long due = startNanos + round * cycleNanos + offsetNanos(i);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        // Behind schedule it sends at once; the lag shows in the latency
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    ReplayRequest request = requests.get(i);
+                    synchronized (outstandingLock) {
+                        outstanding++;
+                    }
+                    executor.execute(() -> send(request, due));
+                }
+            }
+        } catch (InterruptedException e) {
+            // Cancelled
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            status = Status.FAILED;
+            log.error("Replay {} failed: {}", id, e.getMessage(), e);
+        }
+        awaitOutstanding();
+        if (pool != null) {
+            pool.shutdown();
+        }
+        finishNanos = System.nanoTime();
+        finishedAt = Instant.now();
+        if (status == Status.RUNNING) {
+            status = cancelled ? Status.CANCELLED : Status.COMPLETED;
+        }
+        log.info("Replay {} {}: {} of {} requests completed, {} failed, {} req/s",
+            id, status.name().toLowerCase(Locale.ROOT), completed.sum(), (long) requests.size() * repeat,
+            failed.sum(), String.format(Locale.ROOT, "%.1f", report().getThroughputPerSecond()));
+    }
+
+    /** When request {@code i} is due within one pass over the traffic. */
+    private long offsetNanos(int i) {
+        if (ratePerSecond != null) {
+            return (long) (i * 1e9 / ratePerSecond);
+        }
+        return (long) (requests.get(i).offsetMillis() * 1e6 / timeCompression);
+    }
+
+    /** Length of one pass, so repeats follow on at the traffic's own pace. */
+    private long cycleNanos() {
+        int n = requests.size();
+        if (ratePerSecond != null) {
+            return (long) (n * 1e9 / ratePerSecond);
+        }
+        long last = offsetNanos(n - 1);
+        return n > 1 ? last + last / (n - 1) : Math.max(last, 1);
+    }
+
+    private void send(ReplayRequest request, long dueNanos) {
+        boolean acquired = false;
+        try {
+            if (slots != null) {
+                slots.acquire();
+                acquired = true;
+            }
+            if (cancelled) {
+                return;
+            }
+            long sentNanos = System.nanoTime();
+            sent.increment();
+            HttpResponse<InputStream> response = client.send(toHttpRequest(request),
+                HttpResponse.BodyHandlers.ofInputStream());
+            long bytes;
+            try (InputStream body = response.body()) {
+                bytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            long doneNanos = System.nanoTime();
+            latency.record((doneNanos - dueNanos) / 1000);
+            serviceTime.record((doneNanos - sentNanos) / 1000);
+            int statusClass = response.statusCode() / 100;
+            statusClasses[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+            bytesReceived.add(bytes);
+            completed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.debug("Replayed {} {} failed: {}", request.method(), request.url(), e.toString());
+        } finally {
+            if (acquired) {
+                slots.release();
+            }
+            synchronized (outstandingLock) {
+                outstanding--;
+                outstandingLock.notifyAll();
+            }
+        }
+    }
+
+    private HttpRequest toHttpRequest(ReplayRequest request) {
+        String method = "ANY".equalsIgnoreCase(request.method()) ? "GET" : request.method();
+        byte[] body = request.body();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(targetUrl + request.url()))
+            .timeout(timeout)
+            .method(method, body == null || body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (request.headers() != null) {
+            request.headers().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && values != null) {
+                    values.forEach(value -> builder.header(name, value));
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    private void awaitOutstanding() {
+        synchronized (outstandingLock) {
+            while (outstanding > 0) {
+                try {
+                    outstandingLock.wait(1000);
+                } catch (InterruptedException e) {
+                    // Interrupted by cancel(); keep waiting for requests in flight
+                }
+            }
+        }
+    }
+
+    private static ReplayReport.Latency summarize(LatencyHistogram histogram) {
+        ReplayReport.Latency summary = new ReplayReport.Latency();
+        if (histogram.count() == 0) {
+            return summary;
+        }
+        summary.setMean(histogram.mean() / 1000);
+        summary.setMax(histogram.max() / 1000.0);
+        summary.setP50(histogram.percentile(0.50) / 1000.0);
+        summary.setP90(histogram.percentile(0.90) / 1000.0);
+        summary.setP99(histogram.percentile(0.99) / 1000.0);
+        summary.setP999(histogram.percentile(0.999) / 1000.0);
+        return summary;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wiremock.ui.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.GraphQLStub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "file")
+class FileGraphQLStubRepository extends FileStubStore<GraphQLStub> implements GraphQLStubRepository {
+
+    FileGraphQLStubRepository(ObjectMapper objectMapper) {
+        super(objectMapper, GraphQLStub.class, "graphql_stubs.log");
+    }
+
+    @Override
+    public StubPage<GraphQLStub> find(StubQuery query) {
+        return page(query, stub -> matchesCommon(query, stub.getName(), stub.isEnabled(), stub.getScenarioName())
+                && (!StringUtils.hasText(query.getOperationName()) || query.getOperationName().equals(stub.getOperationName())),
+            null, afterId(query.getAfter()), GraphQLStub::getId);
+    }
+
+    @Override
+    protected String idOf(GraphQLStub stub) {
+        return stub.getId();
+    }
+
+    @Override
+    protected void assignId(GraphQLStub stub, String id) {
+        stub.setId(id);
+    }
+
+    @Override
+    protected boolean isEnabled(GraphQLStub stub) {
+        return stub.isEnabled();
+    }
+}
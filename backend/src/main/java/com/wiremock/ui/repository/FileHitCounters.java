@@ -0,0 +1,245 @@
+package com.wiremock.ui.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wiremock.ui.repository.StubRepository.HitCount;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Hit counters of the file backend, kept in their own JSON-lines log next to the stub
+ * log so a hit flush appends one short record per hit stub instead of rewriting whole
+ * stub documents. Each record holds a stub's running totals, so the last one read for a
+ * stub wins, and the log is rewritten with only the live totals once superseded records
+ * outnumber them.
+ *
+ * <p>Appends are not forced to disk. Hits counted since the last flush are lost on a
+ * crash anyway; at worst the last flush's records go with them.
+ */
+@Slf4j
+final class FileHitCounters {
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+    private static final String ID = "id";
+    private static final String COUNT = "n";
+    private static final String LAST_HIT = "t";
+
+    /** A stub's hits so far and the latest of them. */
+    record Totals(long count, Instant lastHitAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private Path file;
+    private FileChannel channel;
+    private long superseded;
+
+    FileHitCounters(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Loads the log, keeping only the counters of stubs that exist. */
+    void open(Path file, Predicate<String> exists) throws IOException {
+        this.file = file;
+        long records = 0;
+        boolean unreadable = false;
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        apply(objectMapper.readTree(line));
+                        records++;
+                    } catch (IOException | IllegalArgumentException e) {
+                        // A torn last line from a crash mid-write
+                        log.warn("Skipping unreadable record in {}", file.getFileName());
+                        unreadable = true;
+                    }
+                }
+            }
+        }
+        totals.keySet().removeIf(exists.negate());
+        superseded = records - totals.size();
+        synchronized (writeLock) {
+            if (unreadable || superseded > Math.max(MIN_COMPACTION_RECORDS, totals.size())) {
+                compact();
+            } else {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    void close() {
+        synchronized (writeLock) {
+            if (channel != null) {
+                try {
+                    channel.force(false);
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    Totals get(String stubId) {
+        return totals.get(stubId);
+    }
+
+    /** Adds hits to the counters of stubs that exist and appends their new totals. */
+    void add(List<HitCount> hits, Predicate<String> exists) {
+        synchronized (writeLock) {
+            List<byte[]> records = new ArrayList<>(hits.size());
+            for (HitCount hit : hits) {
+                if (!exists.test(hit.stubId())) {
+                    continue;
+                }
+                Totals current = totals.get(hit.stubId());
+                Totals updated = current == null
+                    ? new Totals(hit.count(), hit.lastHitAt())
+                    : new Totals(current.count() + hit.count(), latest(current.lastHitAt(), hit.lastHitAt()));
+                records.add(record(hit.stubId(), updated));
+                if (totals.put(hit.stubId(), updated) != null) {
+                    superseded++;
+                }
+            }
+            append(records);
+        }
+    }
+
+    /** Sets counters that aren't kept yet, such as those of stubs written before counters were split out. */
+    void seed(Map<String, Totals> seeds) {
+        synchronized (writeLock) {
+            List<byte[]> records = new ArrayList<>(seeds.size());
+            seeds.forEach((stubId, seed) -> {
+                if (totals.putIfAbsent(stubId, seed) == null) {
+                    records.add(record(stubId, seed));
+                }
+            });
+            append(records);
+        }
+    }
+
+    /** Drops the counters of deleted stubs, so an id imported again starts from zero. */
+    void remove(Collection<String> stubIds) {
+        synchronized (writeLock) {
+            List<byte[]> records = new ArrayList<>();
+            for (String stubId : stubIds) {
+                if (totals.remove(stubId) != null) {
+                    records.add(record(stubId, null));
+                    // The removed counter's last record, and the delete record itself
+                    superseded += 2;
+                }
+            }
+            append(records);
+        }
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private void apply(JsonNode record) {
+        String id = record.path(ID).asText(null);
+        if (id == null) {
+            throw new IllegalArgumentException("Record without an id");
+        }
+        if (!record.has(COUNT)) {
+            totals.remove(id);
+            return;
+        }
+        JsonNode lastHit = record.path(LAST_HIT);
+        totals.put(id, new Totals(record.path(COUNT).asLong(),
+            lastHit.isNumber() ? Instant.ofEpochMilli(lastHit.asLong()) : null));
+    }
+
+    private byte[] record(String stubId, Totals totals) {
+        ObjectNode record = objectMapper.createObjectNode().put(ID, stubId);
+        if (totals != null) {
+            record.put(COUNT, totals.count());
+            if (totals.lastHitAt() != null) {
+                record.put(LAST_HIT, totals.lastHitAt().toEpochMilli());
+            }
+        }
+        try {
+            return objectMapper.writeValueAsBytes(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize hit counter " + stubId, e);
+        }
+    }
+
+    private void append(List<byte[]> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        int size = records.stream().mapToInt(record -> record.length + 1).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        records.forEach(record -> buffer.put(record).put((byte) '\n'));
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write to " + file.getFileName(), e);
+        }
+        if (superseded > Math.max(MIN_COMPACTION_RECORDS, totals.size())) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // The log is still complete, only longer than it needs to be
+                log.warn("Failed to compact {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    /** Rewrites the log with one record per live counter and swaps it in atomically. */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Totals> entry : totals.entrySet()) {
+                byte[] record = record(entry.getKey(), entry.getValue());
+                ByteBuffer buffer = ByteBuffer.allocate(record.length + 1).put(record).put((byte) '\n').flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (channel != null) {
+            // Still open on the replaced file
+            channel.close();
+        }
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.debug("Compacted {} to {} counters, dropping {} superseded records", file.getFileName(),
+            totals.size(), superseded);
+        superseded = 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wiremock.ui.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.SoapStub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "file")
+class FileSoapStubRepository extends FileStubStore<SoapStub> implements SoapStubRepository {
+
+    FileSoapStubRepository(ObjectMapper objectMapper) {
+        super(objectMapper, SoapStub.class, "soap_stubs.log");
+    }
+
+    @Override
+    public StubPage<SoapStub> find(StubQuery query) {
+        return page(query, stub -> matchesCommon(query, stub.getName(), stub.isEnabled(), stub.getScenarioName())
+                && (!StringUtils.hasText(query.getSoapAction()) || query.getSoapAction().equals(stub.getSoapAction())),
+            null, afterId(query.getAfter()), SoapStub::getId);
+    }
+
+    @Override
+    protected String idOf(SoapStub stub) {
+        return stub.getId();
+    }
+
+    @Override
+    protected void assignId(SoapStub stub, String id) {
+        stub.setId(id);
+    }
+
+    @Override
+    protected boolean isEnabled(SoapStub stub) {
+        return stub.isEnabled();
+    }
+}
@@ -0,0 +1,219 @@
+package com.wiremock.ui.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.Stub;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "file")
+class FileStubRepository extends FileStubStore<Stub> implements StubRepository {
+    // Hit counters live apart from the stubs; the stub log never holds them
+    private final FileHitCounters hits;
+
+    FileStubRepository(ObjectMapper objectMapper) {
+        super(objectMapper, Stub.class, "stubs.log");
+        this.hits = new FileHitCounters(objectMapper);
+    }
+
+    @Override
+    public void open() throws IOException {
+        super.open();
+        hits.open(directory().resolve("stub-hits.log"), this::contains);
+        // Stubs logged before the counters were split out still carry their own
+        Map<String, FileHitCounters.Totals> seeds = new HashMap<>();
+        for (Stub stub : indexed()) {
+            if (stub.getHitCount() > 0 || stub.getLastHitAt() != null) {
+                seeds.put(stub.getId(), new FileHitCounters.Totals(stub.getHitCount(), stub.getLastHitAt()));
+            }
+        }
+        hits.seed(seeds);
+    }
+
+    @Override
+    public void close() {
+        hits.close();
+        super.close();
+    }
+
+    @Override
+    public StubPage<Stub> find(StubQuery query) {
+        Predicate<Stub> filter = stub -> matchesCommon(query, stub.getName(), stub.isEnabled(), stub.getScenarioName())
+            && matchesRequest(query, stub)
+            && (query.getUnusedSince() == null || lastHitAtOf(stub) == null
+                || lastHitAtOf(stub).toEpochMilli() < query.getUnusedSince());
+        if (!StringUtils.hasText(query.getSort())) {
+            return page(query, filter, null, afterId(query.getAfter()), Stub::getId);
+        }
+
+        // Same sorts and cursors as the MongoDB queries: a null last hit sorts before any time
+        boolean descending = query.getSort().startsWith("-");
+        String sort = descending ? query.getSort().substring(1) : query.getSort();
+        Function<Stub, Long> sortValue = switch (sort) {
+            case "hits" -> this::hitCountOf;
+            case "lastHit" -> stub -> lastHitAtOf(stub) != null ? lastHitAtOf(stub).toEpochMilli() : null;
+            default -> throw new IllegalArgumentException(
+                "Unknown sort '" + query.getSort() + "', expected hits or lastHit, optionally prefixed with '-'");
+        };
+        Comparator<Position> ascending = Comparator.comparing(Position::value, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Position::id);
+        Comparator<Position> positions = descending ? ascending.reversed() : ascending;
+        Function<Stub, Position> positionOf = stub -> new Position(sortValue.apply(stub), stub.getId());
+
+        Predicate<Stub> after = null;
+        if (StringUtils.hasText(query.getAfter())) {
+            Position cursor = parseCursor(query.getAfter());
+            after = stub -> positions.compare(positionOf.apply(stub), cursor) > 0;
+        }
+        return page(query, filter, Comparator.comparing(positionOf, positions), after, stub -> {
+            Long value = sortValue.apply(stub);
+            return stub.getId() + ":" + (value != null ? value : "");
+        });
+    }
+
+    @Override
+    public long countByScenarioNameIsNotNull() {
+        return count(stub -> stub.getScenarioName() != null);
+    }
+
+    @Override
+    public Stream<Stub> streamByRecordingId(String recordingId) {
+        return streamWhere(stub -> recordingId.equals(stub.getRecordingId()));
+    }
+
+    @Override
+    public Stub save(Stub stub) {
+        StubRequestFields.apply(stub);
+        return super.save(stub);
+    }
+
+    @Override
+    public int saveAll(List<Stub> stubs) {
+        List<Stub> copies = new ArrayList<>(stubs.size());
+        for (Stub stub : stubs) {
+            if (stub.getId() == null) {
+                stub.setId(new ObjectId().toHexString());
+            }
+            StubRequestFields.apply(stub);
+            copies.add(toStored(stub));
+        }
+        if (!copies.isEmpty()) {
+            put(copies);
+        }
+        return copies.size();
+    }
+
+    @Override
+    public void deleteAllById(Collection<String> ids) {
+        super.deleteAllById(ids);
+        hits.remove(ids);
+    }
+
+    @Override
+    public boolean existsByResponseContaining(String text) {
+        return indexed().stream().anyMatch(stub -> stub.getResponse() != null && stub.getResponse().contains(text));
+    }
+
+    @Override
+    public void recordHits(List<HitCount> hitCounts) {
+        hits.add(hitCounts, this::contains);
+    }
+
+    /** Hands out stubs with their counters filled in from the counter log. */
+    @Override
+    protected Stub copy(Stub stub) {
+        Stub copy = super.copy(stub);
+        copy.setHitCount(hitCountOf(stub));
+        copy.setLastHitAt(lastHitAtOf(stub));
+        return copy;
+    }
+
+    /** Stores stubs without counters, which callers' copies may hold stale. */
+    @Override
+    protected Stub toStored(Stub stub) {
+        Stub stored = super.toStored(stub);
+        stored.setHitCount(0);
+        stored.setLastHitAt(null);
+        return stored;
+    }
+
+    @Override
+    protected String idOf(Stub stub) {
+        return stub.getId();
+    }
+
+    @Override
+    protected void assignId(Stub stub, String id) {
+        stub.setId(id);
+    }
+
+    @Override
+    protected boolean isEnabled(Stub stub) {
+        return stub.isEnabled();
+    }
+
+    private long hitCountOf(Stub stub) {
+        FileHitCounters.Totals totals = hits.get(stub.getId());
+        return totals != null ? totals.count() : 0;
+    }
+
+    private Instant lastHitAtOf(Stub stub) {
+        FileHitCounters.Totals totals = hits.get(stub.getId());
+        return totals != null ? totals.lastHitAt() : null;
+    }
+
+    private boolean matchesRequest(StubQuery query, Stub stub) {
+        boolean byUrl = StringUtils.hasText(query.getUrl());
+        boolean byMethod = StringUtils.hasText(query.getMethod());
+        if (!byUrl && !byMethod) {
+            return true;
+        }
+        String method = stub.getRequestMethod();
+        String url = stub.getRequestUrl();
+        if (method == null) {
+            // Written before the fields were kept; work them out without changing the stored stub
+            Stub derived = new Stub();
+            derived.setRequest(stub.getRequest());
+            StubRequestFields.apply(derived);
+            method = derived.getRequestMethod();
+            url = derived.getRequestUrl();
+        }
+        if (byUrl && (url == null || !url.startsWith(query.getUrl()))) {
+            return false;
+        }
+        return !byMethod || query.getMethod().toUpperCase(Locale.ROOT).equals(method);
+    }
+
+    private static Position parseCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        String value = cursor.substring(separator + 1);
+        try {
+            return new Position(value.isEmpty() ? null : Long.parseLong(value), cursor.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private record Position(Long value, String id) {
+    }
+}
@@ -0,0 +1,387 @@
+package com.wiremock.ui.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded storage for one stub kind, used when {@code wiremock.storage.backend} is
+ * {@code file}. Every save and delete is appended to a JSON-lines log and applied to an
+ * in-memory index, which is rebuilt from the log on start; the log is rewritten with
+ * only the live stubs once superseded records outnumber them. Reads never touch the disk.
+ *
+ * <p>Stubs are handed out as copies, so callers can modify what they read without
+ * changing the index. List queries filter and page the index the way the MongoDB
+ * queries do, but return whole stubs: field projections are not applied.
+ */
+@Slf4j
+abstract class FileStubStore<T> implements StubStore<T>, ApplicationEventPublisherAware {
+    // Rewriting a small log is not worth it however much of it is superseded
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+    private static final String ID = "id";
+    private static final String DOCUMENT = "doc";
+
+    protected final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final String fileName;
+    private ApplicationEventPublisher events;
+
+    @Value("${wiremock.storage.file.dir:${wiremock.server.root-dir}/store}")
+    private String directory;
+
+    @Value("${wiremock.storage.file.fsync:true}")
+    private boolean fsync;
+
+    @Value("${wiremock.api.page.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${wiremock.api.page.max-limit:1000}")
+    private int maxLimit;
+
+    // Ordered by id; ObjectId ids sort by creation time, as MongoDB's _id order does
+    private final ConcurrentSkipListMap<String, T> stubs = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+    private Path file;
+    private FileChannel channel;
+    private long superseded;
+
+    protected FileStubStore(ObjectMapper objectMapper, Class<T> type, String fileName) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    protected abstract String idOf(T stub);
+
+    protected abstract void assignId(T stub, String id);
+
+    protected abstract boolean isEnabled(T stub);
+
+    @PostConstruct
+    public void open() throws IOException {
+        file = Paths.get(directory).resolve(fileName);
+        Files.createDirectories(file.getParent());
+        long records = 0;
+        boolean unreadable = false;
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        apply(objectMapper.readTree(line));
+                        records++;
+                    } catch (IOException | IllegalArgumentException e) {
+                        // A torn last line from a crash mid-write
+                        log.warn("Skipping unreadable record in {}", file.getFileName());
+                        unreadable = true;
+                    }
+                }
+            }
+        }
+        superseded = records - stubs.size();
+        log.info("Loaded {} stubs from {}", stubs.size(), file);
+        synchronized (writeLock) {
+            // A rewrite also drops a torn line, which later appends would otherwise extend
+            if (unreadable || superseded > Math.max(MIN_COMPACTION_RECORDS, stubs.size())) {
+                compact();
+            } else {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (writeLock) {
+            if (channel != null) {
+                try {
+                    channel.force(false);
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public T save(T stub) {
+        synchronized (writeLock) {
+            if (idOf(stub) == null) {
+                assignId(stub, new ObjectId().toHexString());
+            }
+            put(List.of(toStored(stub)));
+        }
+        return stub;
+    }
+
+    /** Whether a stub with this id is stored. */
+    protected boolean contains(String id) {
+        return stubs.containsKey(id);
+    }
+
+    /** The indexed stubs themselves rather than copies; for reading only. */
+    protected Collection<T> indexed() {
+        return Collections.unmodifiableCollection(stubs.values());
+    }
+
+    /** The directory the log is kept in, once opened. */
+    protected Path directory() {
+        return file.getParent();
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(stubs.get(id)).map(this::copy);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return stubs.values().stream().map(this::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<T> streamAll() {
+        return stubs.values().stream().map(this::copy);
+    }
+
+    /** Copies of the stubs that match, filtered before copying. */
+    protected Stream<T> streamWhere(Predicate<T> filter) {
+        return stubs.values().stream().filter(filter).map(this::copy);
+    }
+
+    @Override
+    public void delete(T stub) {
+        deleteAllById(List.of(idOf(stub)));
+    }
+
+    @Override
+    public long count() {
+        return stubs.size();
+    }
+
+    @Override
+    public long countByEnabled(boolean enabled) {
+        return count(stub -> isEnabled(stub) == enabled);
+    }
+
+    protected long count(Predicate<T> filter) {
+        return stubs.values().stream().filter(filter).count();
+    }
+
+    public void deleteAllById(Collection<String> ids) {
+        synchronized (writeLock) {
+            List<byte[]> records = new ArrayList<>();
+            for (String id : ids) {
+                if (stubs.containsKey(id)) {
+                    records.add(record(id, null));
+                }
+            }
+            if (records.isEmpty()) {
+                return;
+            }
+            append(records);
+            for (String id : ids) {
+                if (stubs.remove(id) != null) {
+                    // The removed stub's last record, and the delete record itself
+                    superseded += 2;
+                }
+            }
+            compactIfWorthwhile();
+        }
+        events.publishEvent(new StubsChangedEvent(type));
+    }
+
+    /** Writes stubs that already have ids in one append, then indexes them. */
+    protected void put(List<T> copies) {
+        synchronized (writeLock) {
+            List<byte[]> records = new ArrayList<>(copies.size());
+            for (T stub : copies) {
+                records.add(record(idOf(stub), stub));
+            }
+            append(records);
+            for (T stub : copies) {
+                if (stubs.put(idOf(stub), stub) != null) {
+                    superseded++;
+                }
+            }
+            compactIfWorthwhile();
+        }
+        events.publishEvent(new StubsChangedEvent(type));
+    }
+
+    /** A copy of a stub as handed out to callers. */
+    protected T copy(T stub) {
+        return objectMapper.convertValue(stub, type);
+    }
+
+    /** A copy of a stub as written to the log and index. */
+    protected T toStored(T stub) {
+        return objectMapper.convertValue(stub, type);
+    }
+
+    /**
+     * Filters, orders and pages the index. {@code order} must end with the id so pages
+     * are stable, and {@code after} keeps the stubs past the cursor in that order.
+     */
+    protected StubPage<T> page(StubQuery query, Predicate<T> filter, Comparator<T> order,
+                               Predicate<T> after, Function<T, String> cursorOf) {
+        Stream<T> matching = stubs.values().stream().filter(filter);
+        if (order != null) {
+            matching = matching.sorted(order);
+        }
+        if (after != null) {
+            matching = matching.filter(after);
+        }
+        if (!query.isPaged()) {
+            return new StubPage<>(matching.map(this::copy).collect(Collectors.toList()), null);
+        }
+        int limit = query.getLimit() == null ? defaultLimit : Math.max(1, Math.min(query.getLimit(), maxLimit));
+        List<T> items = matching.limit(limit + 1L).map(this::copy).collect(Collectors.toList());
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = cursorOf.apply(items.get(limit - 1));
+        }
+        return new StubPage<>(items, nextCursor);
+    }
+
+    /** Matches the name prefix, enabled and scenario filters every stub kind supports. */
+    protected static boolean matchesCommon(StubQuery query, String name, boolean enabled, String scenarioName) {
+        if (StringUtils.hasText(query.getName()) && (name == null || !name.startsWith(query.getName()))) {
+            return false;
+        }
+        if (query.getEnabled() != null && query.getEnabled() != enabled) {
+            return false;
+        }
+        return !StringUtils.hasText(query.getScenario()) || query.getScenario().equals(scenarioName);
+    }
+
+    /** Keeps the stubs after a cursor in id order. */
+    protected Predicate<T> afterId(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        return stub -> idOf(stub).compareTo(cursor) > 0;
+    }
+
+    private void apply(JsonNode record) throws IOException {
+        String id = record.path(ID).asText(null);
+        if (id == null) {
+            throw new IllegalArgumentException("Record without an id");
+        }
+        JsonNode document = record.get(DOCUMENT);
+        if (document == null || document.isNull()) {
+            stubs.remove(id);
+        } else {
+            stubs.put(id, objectMapper.treeToValue(document, type));
+        }
+    }
+
+    private byte[] record(String id, T stub) {
+        ObjectNode record = objectMapper.createObjectNode().put(ID, id);
+        if (stub != null) {
+            record.set(DOCUMENT, objectMapper.valueToTree(stub));
+        }
+        try {
+            return objectMapper.writeValueAsBytes(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize stub " + id, e);
+        }
+    }
+
+    private void append(List<byte[]> records) {
+        int size = records.stream().mapToInt(record -> record.length + 1).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        records.forEach(record -> buffer.put(record).put((byte) '\n'));
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write to " + file.getFileName(), e);
+        }
+    }
+
+    private void compactIfWorthwhile() {
+        if (superseded > Math.max(MIN_COMPACTION_RECORDS, stubs.size())) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // The log is still complete, only longer than it needs to be
+                log.warn("Failed to compact {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    /** Rewrites the log with one record per live stub and swaps it in atomically. */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(fileName + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (T stub : stubs.values()) {
+                byte[] record = record(idOf(stub), stub);
+                ByteBuffer buffer = ByteBuffer.allocate(record.length + 1).put(record).put((byte) '\n').flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (channel != null) {
+            // Still open on the replaced file
+            channel.close();
+        }
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.debug("Compacted {} to {} stubs, dropping {} superseded records", file.getFileName(),
+            stubs.size(), superseded);
+        superseded = 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.wiremock.ui.repository;
+
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.GraphQLStub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+class MongoGraphQLStubRepository extends MongoStubStore<GraphQLStub> implements GraphQLStubRepository {
+
+    MongoGraphQLStubRepository(MongoTemplate mongoTemplate, StubQueryRepository queries) {
+        super(mongoTemplate, queries, GraphQLStub.class);
+    }
+
+    @Override
+    public StubPage<GraphQLStub> find(StubQuery query) {
+        return queries.findGraphQLStubs(query);
+    }
+}
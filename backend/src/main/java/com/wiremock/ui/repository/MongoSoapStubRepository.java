@@ -0,0 +1,22 @@
+package com.wiremock.ui.repository;
+
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.SoapStub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+class MongoSoapStubRepository extends MongoStubStore<SoapStub> implements SoapStubRepository {
+
+    MongoSoapStubRepository(MongoTemplate mongoTemplate, StubQueryRepository queries) {
+        super(mongoTemplate, queries, SoapStub.class);
+    }
+
+    @Override
+    public StubPage<SoapStub> find(StubQuery query) {
+        return queries.findSoapStubs(query);
+    }
+}
@@ -0,0 +1,222 @@
+package com.wiremock.ui.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.Stub;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+class MongoStubRepository extends MongoStubStore<Stub> implements StubRepository {
+    // Owned by recordHits; saves leave them alone
+    private static final Set<String> HIT_FIELDS = Set.of("hitCount", "lastHitAt");
+
+    private volatile List<String> storedFields;
+
+    MongoStubRepository(MongoTemplate mongoTemplate, StubQueryRepository queries) {
+        super(mongoTemplate, queries, Stub.class);
+    }
+
+    /**
+     * Stubs saved before hit counting existed have no {@code hitCount}; give them zero
+     * so sorting and keyset paging by hits see a number on every document.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillHitCounts() {
+        try {
+            long updated = mongoTemplate.updateMulti(Query.query(Criteria.where("hitCount").exists(false)),
+                new Update().set("hitCount", 0L), Stub.class).getModifiedCount();
+            if (updated > 0) {
+                log.info("Initialised hit counts on {} stubs", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not initialise stub hit counts: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stubs saved before the request method and URL were kept as fields of their own
+     * are invisible to the method and URL filters; fill those fields in, in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRequestFieldsInBackground() {
+        Thread backfill = new Thread(this::backfillRequestFields, "stub-request-fields-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    void backfillRequestFields() {
+        Query missing = Query.query(Criteria.where("requestMethod").exists(false)).cursorBatchSize(cursorBatchSize);
+        missing.fields().include("request");
+        long updated = 0;
+        List<Stub> batch = new ArrayList<>(cursorBatchSize);
+        try (Stream<Stub> stubs = mongoTemplate.stream(missing, Stub.class)) {
+            Iterator<Stub> iterator = stubs.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= cursorBatchSize || !iterator.hasNext()) {
+                    updated += setRequestFields(batch);
+                    batch.clear();
+                }
+            }
+            if (updated > 0) {
+                log.info("Filled in the request method and URL of {} stubs", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not fill in stub request methods and URLs: {}", e.getMessage());
+        }
+    }
+
+    private long setRequestFields(List<Stub> stubs) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Stub.class);
+        for (Stub stub : stubs) {
+            StubRequestFields.apply(stub);
+            // A save since the read has set the fields from a newer request
+            operations.updateOne(Query.query(Criteria.where("_id").is(stub.getId()).and("requestMethod").exists(false)),
+                new Update().set("requestMethod", stub.getRequestMethod()).set("requestUrl", stub.getRequestUrl()));
+        }
+        return operations.execute().getModifiedCount();
+    }
+
+    @Override
+    public StubPage<Stub> find(StubQuery query) {
+        return queries.findStubs(query);
+    }
+
+    @Override
+    public long countByScenarioNameIsNotNull() {
+        return mongoTemplate.count(Query.query(Criteria.where("scenarioName").ne(null)), Stub.class);
+    }
+
+    @Override
+    public Stream<Stub> streamByRecordingId(String recordingId) {
+        return mongoTemplate.stream(Query.query(Criteria.where("recordingId").is(recordingId))
+            .cursorBatchSize(cursorBatchSize), Stub.class);
+    }
+
+    /** Inserts a new stub, or writes an existing one's fields without touching its hit counters. */
+    @Override
+    public Stub save(Stub stub) {
+        if (stub.getId() == null) {
+            mongoTemplate.insert(stub);
+        } else {
+            mongoTemplate.upsert(byId(stub), withoutHits(stub), Stub.class);
+        }
+        changed();
+        return stub;
+    }
+
+    @Override
+    public int saveAll(List<Stub> stubs) {
+        if (stubs.isEmpty()) {
+            return 0;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Stub.class);
+        for (Stub stub : stubs) {
+            if (stub.getId() == null) {
+                // Assign ids up front so callers can derive WireMock mappings without reading documents back
+                stub.setId(new ObjectId().toHexString());
+                operations.insert(stub);
+            } else {
+                operations.upsert(byId(stub), withoutHits(stub));
+            }
+        }
+        BulkWriteResult result = operations.execute();
+        changed();
+        return result.getInsertedCount() + result.getUpserts().size() + result.getMatchedCount();
+    }
+
+    private static Query byId(Stub stub) {
+        return Query.query(Criteria.where("_id").is(stub.getId()));
+    }
+
+    /**
+     * Sets every field of the stub except its hit counters. Callers write stubs they read
+     * some time ago, in the write-behind outbox for instance, while {@link #recordHits}
+     * keeps incrementing the counters; replacing the whole document would lose those hits.
+     */
+    private Update withoutHits(Stub stub) {
+        StubRequestFields.apply(stub);
+        Document document = new Document();
+        mongoTemplate.getConverter().write(stub, document);
+        Update update = new Update();
+        for (String field : storedFields()) {
+            if (document.get(field) != null) {
+                update.set(field, document.get(field));
+            } else {
+                update.unset(field);
+            }
+        }
+        if (document.get("_class") != null) {
+            update.set("_class", document.get("_class"));
+        }
+        return update.setOnInsert("hitCount", 0L);
+    }
+
+    private List<String> storedFields() {
+        List<String> fields = storedFields;
+        if (fields == null) {
+            List<String> names = new ArrayList<>();
+            mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Stub.class)
+                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+                    if (!property.isIdProperty() && !HIT_FIELDS.contains(property.getFieldName())) {
+                        names.add(property.getFieldName());
+                    }
+                });
+            fields = List.copyOf(names);
+            storedFields = fields;
+        }
+        return fields;
+    }
+
+    @Override
+    public void deleteAllById(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), Stub.class);
+            changed();
+        }
+    }
+
+    @Override
+    public boolean existsByResponseContaining(String text) {
+        // Unindexed, but only checked before rare operations such as deleting a body file
+        return mongoTemplate.exists(Query.query(Criteria.where("response").regex(Pattern.quote(text))), Stub.class);
+    }
+
+    @Override
+    public void recordHits(List<HitCount> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Stub.class);
+        for (HitCount hit : hits) {
+            operations.updateOne(Query.query(Criteria.where("_id").is(hit.stubId())),
+                new Update().inc("hitCount", hit.count()).max("lastHitAt", Date.from(hit.lastHitAt())));
+        }
+        operations.execute();
+    }
+}
@@ -0,0 +1,82 @@
+package com.wiremock.ui.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/** The operations every stub kind shares, over its MongoDB collection. */
+abstract class MongoStubStore<T> implements StubStore<T>, ApplicationEventPublisherAware {
+    protected final MongoTemplate mongoTemplate;
+    protected final StubQueryRepository queries;
+    private final Class<T> type;
+    private ApplicationEventPublisher events;
+
+    @Value("${wiremock.storage.cursor-batch-size:1000}")
+    protected int cursorBatchSize;
+
+    protected MongoStubStore(MongoTemplate mongoTemplate, StubQueryRepository queries, Class<T> type) {
+        this.mongoTemplate = mongoTemplate;
+        this.queries = queries;
+        this.type = type;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @Override
+    public T save(T stub) {
+        T saved = mongoTemplate.save(stub);
+        changed();
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, type));
+    }
+
+    @Override
+    public List<T> findAll() {
+        return mongoTemplate.findAll(type);
+    }
+
+    @Override
+    public Stream<T> streamAll() {
+        return mongoTemplate.stream(new Query().cursorBatchSize(cursorBatchSize), type);
+    }
+
+    @Override
+    public void delete(T stub) {
+        mongoTemplate.remove(stub);
+        changed();
+    }
+
+    @Override
+    public long count() {
+        return mongoTemplate.count(new Query(), type);
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(type);
+    }
+
+    @Override
+    public long countByEnabled(boolean enabled) {
+        return mongoTemplate.count(Query.query(Criteria.where("enabled").is(enabled)), type);
+    }
+
+    /** Tells listeners the stubs changed; upserts and bulk writes publish no mapping events. */
+    protected void changed() {
+        events.publishEvent(new StubsChangedEvent(type));
+    }
+}
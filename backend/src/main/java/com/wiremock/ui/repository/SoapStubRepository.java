@@ -1,12 +1,6 @@
 package com.wiremock.ui.repository;
 
 import com.wiremock.ui.model.SoapStub;
-import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
-@Repository
-public interface SoapStubRepository extends MongoRepository<SoapStub, String> {
-    List<SoapStub> findByEnabled(boolean enabled);
-}
\ No newline at end of file
+public interface SoapStubRepository extends StubStore<SoapStub> {
+}
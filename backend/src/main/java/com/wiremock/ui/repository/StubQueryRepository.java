@@ -0,0 +1,264 @@
+package com.wiremock.ui.repository;
+
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.model.GraphQLStub;
+import com.wiremock.ui.model.SoapStub;
+import com.wiremock.ui.model.Stub;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Filtered, projected and keyset-paginated reads over the stub collections.
+ * Pages are ordered by {@code _id}, so each page is an index range scan no matter
+ * how far into the collection it starts. HTTP stubs can also be ordered by usage;
+ * the cursor then carries the sort value as well as the id.
+ *
+ * <p>Name and URL filters are case-sensitive prefixes, so they use the indexes. The
+ * method and URL filters read the {@code requestMethod}/{@code requestUrl} fields,
+ * which stubs saved by earlier versions only get once
+ * {@link MongoStubRepository#backfillRequestFields()} has run at startup; until then
+ * those stubs do not match either filter.
+ */
+@Repository
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+class StubQueryRepository {
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+        "hits", "hitCount",
+        "lastHit", "lastHitAt");
+    // Listings always show hits, which are keyed by the mapping id a wireMockId in the metadata overrides
+    private static final List<String> HIT_FIELDS = List.of("hitCount", "lastHitAt", "metadata");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${wiremock.api.page.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${wiremock.api.page.max-limit:1000}")
+    private int maxLimit;
+
+    public StubQueryRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public StubPage<Stub> findStubs(StubQuery query) {
+        List<Criteria> criteria = commonCriteria(query);
+        if (StringUtils.hasText(query.getUrl())) {
+            criteria.add(Criteria.where("requestUrl").regex(prefix(query.getUrl())));
+        }
+        if (StringUtils.hasText(query.getMethod())) {
+            criteria.add(Criteria.where("requestMethod").is(query.getMethod().toUpperCase(Locale.ROOT)));
+        }
+        if (query.getUnusedSince() != null) {
+            criteria.add(new Criteria().orOperator(
+                Criteria.where("lastHitAt").is(null),
+                Criteria.where("lastHitAt").lt(new Date(query.getUnusedSince()))));
+        }
+        Ordering ordering = ordering(query.getSort());
+        return find(Stub.class, criteria, query, ordering, HIT_FIELDS, stub -> ordering.field == null ? stub.getId()
+            : stub.getId() + ":" + sortValue(stub, ordering.field));
+    }
+
+    public StubPage<GraphQLStub> findGraphQLStubs(StubQuery query) {
+        List<Criteria> criteria = commonCriteria(query);
+        if (StringUtils.hasText(query.getOperationName())) {
+            criteria.add(Criteria.where("operationName").is(query.getOperationName()));
+        }
+        return find(GraphQLStub.class, criteria, query, Ordering.BY_ID, List.of(), GraphQLStub::getId);
+    }
+
+    public StubPage<SoapStub> findSoapStubs(StubQuery query) {
+        List<Criteria> criteria = commonCriteria(query);
+        if (StringUtils.hasText(query.getSoapAction())) {
+            criteria.add(Criteria.where("soapAction").is(query.getSoapAction()));
+        }
+        return find(SoapStub.class, criteria, query, Ordering.BY_ID, List.of(), SoapStub::getId);
+    }
+
+    private List<Criteria> commonCriteria(StubQuery query) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (StringUtils.hasText(query.getName())) {
+            criteria.add(Criteria.where("name").regex(prefix(query.getName())));
+        }
+        if (query.getEnabled() != null) {
+            criteria.add(Criteria.where("enabled").is(query.getEnabled()));
+        }
+        if (StringUtils.hasText(query.getScenario())) {
+            criteria.add(Criteria.where("scenarioName").is(query.getScenario()));
+        }
+        return criteria;
+    }
+
+    /**
+     * An anchored regex matching values that start with {@code value}. Metacharacters are
+     * escaped one by one rather than quoted with {@code \Q...\E}, which MongoDB would not
+     * recognise as a plain prefix it can turn into index bounds.
+     */
+    private static String prefix(String value) {
+        StringBuilder regex = new StringBuilder(value.length() + 8).append('^');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c < 0x80) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+
+    private <T> StubPage<T> find(Class<T> type, List<Criteria> criteria, StubQuery stubQuery,
+                                 Ordering ordering, List<String> required, Function<T, String> cursorOf) {
+        if (StringUtils.hasText(stubQuery.getAfter())) {
+            criteria.add(ordering.after(stubQuery.getAfter()));
+        }
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.with(ordering.sort());
+        applyProjection(query, stubQuery.getFields(), required);
+        if (ordering.field != null && stubQuery.isProjected() && !stubQuery.getFields().get(0).startsWith("-")) {
+            // The cursor needs the sort value
+            query.fields().include(ordering.field);
+        }
+
+        if (!stubQuery.isPaged()) {
+            return new StubPage<>(mongoTemplate.find(query, type), null);
+        }
+
+        int limit = stubQuery.getLimit() == null ? defaultLimit : Math.max(1, Math.min(stubQuery.getLimit(), maxLimit));
+        // Fetch one extra document to learn whether another page follows
+        query.limit(limit + 1);
+        List<T> items = mongoTemplate.find(query, type);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            nextCursor = cursorOf.apply(items.get(limit - 1));
+        }
+        return new StubPage<>(items, nextCursor);
+    }
+
+    private static Ordering ordering(String sort) {
+        if (!StringUtils.hasText(sort)) {
+            return Ordering.BY_ID;
+        }
+        boolean descending = sort.startsWith("-");
+        String field = SORT_FIELDS.get(descending ? sort.substring(1) : sort);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown sort '" + sort + "', expected hits or lastHit, optionally prefixed with '-'");
+        }
+        return new Ordering(field, descending ? Sort.Direction.DESC : Sort.Direction.ASC);
+    }
+
+    private static String sortValue(Stub stub, String field) {
+        if ("hitCount".equals(field)) {
+            return Long.toString(stub.getHitCount());
+        }
+        return stub.getLastHitAt() != null ? Long.toString(stub.getLastHitAt().toEpochMilli()) : "";
+    }
+
+    /**
+     * Sort order plus the keyset condition for the page after a cursor. Ties on the sort
+     * field are broken by {@code _id}. MongoDB sorts a null {@code lastHitAt} before any
+     * date, so never-hit stubs come first ascending and last descending.
+     */
+    private record Ordering(String field, Sort.Direction direction) {
+        static final Ordering BY_ID = new Ordering(null, Sort.Direction.ASC);
+        private static final int BSON_STRING = 2;
+        private static final int BSON_OBJECT_ID = 7;
+
+        Sort sort() {
+            return field == null ? Sort.by(direction, "_id") : Sort.by(direction, field).and(Sort.by(direction, "_id"));
+        }
+
+        Criteria after(String cursor) {
+            int separator = cursor.indexOf(':');
+            String id = field == null || separator < 0 ? cursor : cursor.substring(0, separator);
+            if (id.isEmpty() || (field != null && separator < 0)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            boolean ascending = direction == Sort.Direction.ASC;
+            Criteria laterId = idAfter(id, ascending);
+            if (field == null) {
+                return laterId;
+            }
+            Object value = parseValue(cursor.substring(separator + 1), cursor);
+            Criteria sameValueLaterId = new Criteria().andOperator(Criteria.where(field).is(value), laterId);
+            if (value == null) {
+                return ascending
+                    ? new Criteria().orOperator(sameValueLaterId, Criteria.where(field).ne(null))
+                    : sameValueLaterId;
+            }
+            return ascending
+                ? new Criteria().orOperator(Criteria.where(field).gt(value), sameValueLaterId)
+                : new Criteria().orOperator(Criteria.where(field).lt(value), sameValueLaterId, Criteria.where(field).is(null));
+        }
+
+        /**
+         * Ids past {@code id} in sort order. Ids that are not ObjectIds, such as ones given
+         * on import, are stored as strings, which MongoDB sorts before every ObjectId, and
+         * a comparison only ever matches values of its own type.
+         */
+        private static Criteria idAfter(String id, boolean ascending) {
+            if (ObjectId.isValid(id)) {
+                ObjectId lastId = new ObjectId(id);
+                return ascending
+                    ? Criteria.where("_id").gt(lastId)
+                    : new Criteria().orOperator(Criteria.where("_id").lt(lastId), Criteria.where("_id").type(BSON_STRING));
+            }
+            return ascending
+                ? new Criteria().orOperator(Criteria.where("_id").gt(id), Criteria.where("_id").type(BSON_OBJECT_ID))
+                : Criteria.where("_id").lt(id);
+        }
+
+        private Object parseValue(String value, String cursor) {
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                long number = Long.parseLong(value);
+                return "lastHitAt".equals(field) ? new Date(number) : number;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    /** Applies the requested projection, keeping the fields every listed stub needs. */
+    private void applyProjection(Query query, List<String> fields, List<String> required) {
+        if (fields == null || fields.isEmpty()) {
+            return;
+        }
+        Field projection = query.fields();
+        boolean excluding = fields.get(0).startsWith("-");
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.startsWith("-") != excluding) {
+                throw new IllegalArgumentException("Cannot mix included and excluded fields: " + fields);
+            }
+            if (!excluding) {
+                projection.include(name);
+            } else if (!required.contains(name.substring(1))) {
+                projection.exclude(name.substring(1));
+            }
+        }
+        if (!excluding) {
+            required.forEach(projection::include);
+        }
+    }
+}
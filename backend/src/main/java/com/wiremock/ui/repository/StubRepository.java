@@ -1,13 +1,35 @@
 package com.wiremock.ui.repository;
 
 import com.wiremock.ui.model.Stub;
-import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-@Repository
-public interface StubRepository extends MongoRepository<Stub, String> {
-    List<Stub> findByEnabled(boolean enabled);
-    List<Stub> findByScenarioNameIsNotNull();
-}
\ No newline at end of file
+public interface StubRepository extends StubStore<Stub> {
+
+    /** Hits to add to a stub's counter, and the latest of them. */
+    record HitCount(String stubId, long count, Instant lastHitAt) {
+    }
+
+    long countByScenarioNameIsNotNull();
+
+    /** The stubs captured by one recording session; close the stream when done. */
+    Stream<Stub> streamByRecordingId(String recordingId);
+
+    /**
+     * Inserts or updates the stubs in one batch, assigning ids to new ones up front.
+     * Hit counters are left as stored, since they move on independently of the stubs
+     * callers hold. Returns the number written.
+     */
+    int saveAll(List<Stub> stubs);
+
+    void deleteAllById(Collection<String> ids);
+
+    /** Whether any stub's stored response contains the text, such as a body file name. */
+    boolean existsByResponseContaining(String text);
+
+    /** Adds to the stubs' hit counters; stubs that no longer exist are ignored. */
+    void recordHits(List<HitCount> hits);
+}
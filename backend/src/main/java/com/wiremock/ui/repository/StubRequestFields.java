@@ -0,0 +1,89 @@
+package com.wiremock.ui.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.wiremock.ui.model.Stub;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps {@link Stub#getRequestMethod()} and {@link Stub#getRequestUrl()} in step with the
+ * request JSON, so the method and URL filters are plain indexed fields. The request is
+ * scanned with a streaming parser that reads only its top-level keys.
+ */
+@Component
+class StubRequestFields extends AbstractMongoEventListener<Stub> {
+    /** The request keys a URL is matched by, in the order the URL filter prefers them. */
+    static final List<String> URL_FIELDS = List.of("url", "urlPath", "urlPattern", "urlPathPattern");
+
+    /** WireMock matches any method when the request leaves it out. */
+    static final String ANY_METHOD = "ANY";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Stub> event) {
+        apply(event.getSource());
+    }
+
+    /** Sets the stub's method and URL from its request; unreadable requests get neither. */
+    static void apply(Stub stub) {
+        stub.setRequestMethod(null);
+        stub.setRequestUrl(null);
+        String request = stub.getRequest();
+        if (request == null || request.isBlank()) {
+            stub.setRequestMethod(ANY_METHOD);
+            return;
+        }
+        try {
+            String[] fields = scan(request);
+            if (fields == null) {
+                return;
+            }
+            stub.setRequestMethod(fields[0] != null ? fields[0].toUpperCase(Locale.ROOT) : ANY_METHOD);
+            stub.setRequestUrl(fields[1]);
+        } catch (IOException e) {
+            // Left unset; WireMock rejects the request as well
+        }
+    }
+
+    /** The method and preferred URL of a request object, or null if it isn't one. */
+    private static String[] scan(String json) throws IOException {
+        try (JsonParser parser = JSON.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_STRING) {
+                // Double-encoded: the object is inside a string
+                return scan(parser.getText());
+            }
+            if (token != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String method = null;
+            String[] urls = new String[URL_FIELDS.size()];
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                int urlField = URL_FIELDS.indexOf(name);
+                if (value == JsonToken.VALUE_STRING && "method".equals(name)) {
+                    method = parser.getText();
+                } else if (value == JsonToken.VALUE_STRING && urlField >= 0) {
+                    urls[urlField] = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            for (String url : urls) {
+                if (url != null) {
+                    return new String[] {method, url};
+                }
+            }
+            return new String[] {method, null};
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.wiremock.ui.repository;
+
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage for one kind of stub. Implemented over MongoDB and over an embedded log file;
+ * {@code wiremock.storage.backend} picks one for all stub kinds.
+ */
+public interface StubStore<T> {
+
+    /** Inserts or replaces the stub, assigning an id to a new one. */
+    T save(T stub);
+
+    Optional<T> findById(String id);
+
+    List<T> findAll();
+
+    /** Every stub, read incrementally; close the stream when done. */
+    Stream<T> streamAll();
+
+    StubPage<T> find(StubQuery query);
+
+    void delete(T stub);
+
+    long count();
+
+    /** A count that may be approximate, for progress reporting. */
+    default long estimatedCount() {
+        return count();
+    }
+
+    long countByEnabled(boolean enabled);
+}
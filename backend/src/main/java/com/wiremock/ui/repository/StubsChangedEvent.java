@@ -0,0 +1,8 @@
+package com.wiremock.ui.repository;
+
+/**
+ * Published by a stub store after it wrote stubs of the given type, whichever backend
+ * it is and however it wrote them. Hit counter updates are not changes.
+ */
+public record StubsChangedEvent(Class<?> type) {
+}
@@ -0,0 +1,164 @@
+package com.wiremock.ui.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.wiremock.ui.model.BodyFile;
+import com.wiremock.ui.repository.StubRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for large response bodies. Uploads are streamed to disk while
+ * being hashed and land at {@code __files/blobs/<first two hex digits>/<sha256>} under
+ * the WireMock root dir, so identical uploads are stored once. Stubs reference them
+ * with WireMock's own {@code bodyFileName}, and WireMock streams them from disk when
+ * serving instead of holding them on the heap.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BodyFileService {
+    private static final String BLOBS = "blobs";
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final StubRepository stubRepository;
+    private final WireMockServer wireMockServer;
+
+    @Value("${wiremock.server.root-dir}")
+    private String rootDir;
+
+    private Path filesDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        filesDir = Paths.get(rootDir, "__files");
+        Files.createDirectories(filesDir.resolve(BLOBS));
+    }
+
+    public BodyFile store(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(filesDir.resolve(BLOBS), "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                content.transferTo(out);
+            }
+            String id = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(id);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // Same content uploaded before
+                Files.delete(temp);
+            } else {
+                // A concurrent identical upload can only replace it with equal bytes
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.debug("Stored body file {} ({} bytes)", id, Files.size(target));
+            return describe(id, target);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Failed to store body file", e);
+        } catch (NoSuchAlgorithmException e) {
+            deleteQuietly(temp);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public List<BodyFile> getAllBodyFiles() {
+        try (Stream<Path> files = Files.walk(filesDir.resolve(BLOBS), 2)) {
+            return files
+                .filter(path -> ID.matcher(path.getFileName().toString()).matches())
+                .map(path -> describe(path.getFileName().toString(), path))
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list body files", e);
+        }
+    }
+
+    public BodyFile getBodyFile(String id) {
+        return describe(id, existing(id));
+    }
+
+    /** Path of the stored content, for streaming it back out. */
+    public Path getContent(String id) {
+        return existing(id);
+    }
+
+    /**
+     * Deletes a body file that nothing references. Registered mappings cover every stub
+     * being served; stored stubs also cover disabled ones. A stub saved with the file
+     * between the check and the delete is not caught.
+     */
+    public void deleteBodyFile(String id) {
+        Path path = existing(id);
+        String bodyFileName = bodyFileName(id);
+        boolean served = wireMockServer.getStubMappings().stream()
+            .anyMatch(mapping -> bodyFileName.equals(mapping.getResponse().getBodyFileName()));
+        if (served || stubRepository.existsByResponseContaining(bodyFileName)) {
+            throw new IllegalStateException("Body file " + id + " is still used by a stub");
+        }
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete body file " + id, e);
+        }
+    }
+
+    /** The {@code bodyFileName} a stub uses to serve this file. */
+    public static String bodyFileName(String id) {
+        return BLOBS + "/" + id.substring(0, 2) + "/" + id;
+    }
+
+    private Path existing(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid body file id: " + id);
+        }
+        Path path = pathFor(id);
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("Body file not found with ID: " + id);
+        }
+        return path;
+    }
+
+    private Path pathFor(String id) {
+        return filesDir.resolve(bodyFileName(id));
+    }
+
+    private BodyFile describe(String id, Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new BodyFile(id, bodyFileName(id), attributes.size(), attributes.creationTime().toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read body file " + id, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Best effort
+            }
+        }
+    }
+}
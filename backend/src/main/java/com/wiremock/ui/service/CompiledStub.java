@@ -0,0 +1,73 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+
+/**
+ * The parsed form of a {@link com.wiremock.ui.model.Stub}. The raw nodes are what the
+ * mapping is built from; the view nodes have double-encoded JSON and JSON response
+ * bodies unwrapped for the UI. In the common case both refer to the same node instances.
+ */
+@Getter
+public class CompiledStub {
+    private final JsonNode request;
+    private final JsonNode response;
+    private final JsonNode metadata;
+    private final JsonNode requestView;
+    private final JsonNode responseView;
+    private final JsonNode metadataView;
+
+    // Built on first use; listing stubs only needs the view nodes
+    @Getter(AccessLevel.NONE)
+    private volatile StubMapping mapping;
+
+    public CompiledStub(JsonNode request, JsonNode response, JsonNode metadata,
+                        JsonNode requestView, JsonNode responseView, JsonNode metadataView) {
+        this.request = request;
+        this.response = response;
+        this.metadata = metadata;
+        this.requestView = requestView;
+        this.responseView = responseView;
+        this.metadataView = metadataView;
+    }
+
+    void setMapping(StubMapping mapping) {
+        this.mapping = mapping;
+    }
+
+    /**
+     * A copy of the built mapping, or null if it hasn't been built yet. WireMock keeps and
+     * mutates the mappings it is given (insertion index, dirty flag, scenario wiring), so
+     * every caller gets its own; the request pattern is immutable and shared.
+     */
+    StubMapping copyOfMapping() {
+        StubMapping built = mapping;
+        if (built == null) {
+            return null;
+        }
+        StubMapping copy = new StubMapping(built.getRequest(), ResponseDefinition.copyOf(built.getResponse()));
+        copy.setId(built.getId());
+        copy.setName(built.getName());
+        copy.setPersistent(built.isPersistent());
+        copy.setPriority(built.getPriority());
+        copy.setScenarioName(built.getScenarioName());
+        copy.setRequiredScenarioState(built.getRequiredScenarioState());
+        copy.setNewScenarioState(built.getNewScenarioState());
+        if (built.getPostServeActions() != null) {
+            copy.setPostServeActions(new ArrayList<>(built.getPostServeActions()));
+        }
+        if (built.getServeEventListeners() != null) {
+            copy.setServeEventListenerDefinitions(new ArrayList<>(built.getServeEventListeners()));
+        }
+        if (built.getMetadata() != null) {
+            copy.setMetadata(new Metadata(built.getMetadata()));
+        }
+        return copy;
+    }
+}
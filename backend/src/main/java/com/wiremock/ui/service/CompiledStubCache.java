@@ -0,0 +1,97 @@
+package com.wiremock.ui.service;
+
+import com.wiremock.ui.model.Stub;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the compiled form of each stub, keyed by stub id and checked against a
+ * fingerprint of the fields it is compiled from, so unchanged stubs are never parsed
+ * twice. Because the content is compared rather than a version only the stub API bumps,
+ * stubs written by bulk imports, recording playback or other nodes are recompiled
+ * without those paths having to invalidate anything.
+ */
+@Component
+public class CompiledStubCache {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${wiremock.cache.compiled-stubs.max-entries:200000}")
+    private int maxEntries;
+
+    private record Entry(long fingerprint, CompiledStub compiled) {
+    }
+
+    public CompiledStub getOrCompile(Stub stub, Function<Stub, CompiledStub> compiler) {
+        if (stub.getId() == null) {
+            return compiler.apply(stub);
+        }
+
+        long fingerprint = fingerprint(stub);
+        Entry cached = entries.get(stub.getId());
+        if (cached != null && cached.fingerprint() == fingerprint) {
+            return cached.compiled();
+        }
+
+        CompiledStub compiled = compiler.apply(stub);
+        // Past the limit, only replace stale entries rather than growing further
+        if (cached != null || entries.size() < maxEntries) {
+            entries.put(stub.getId(), new Entry(fingerprint, compiled));
+        }
+        return compiled;
+    }
+
+    public void invalidate(String stubId) {
+        if (stubId != null) {
+            entries.remove(stubId);
+        }
+    }
+
+    /** Drops the entries of stubs that no longer exist, such as ones deleted directly in the store. */
+    public void retainAll(Set<String> stubIds) {
+        entries.keySet().retainAll(stubIds);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of every field the compiled form and its mapping are built
+     * from. Hashing the strings is far cheaper than parsing them.
+     */
+    static long fingerprint(Stub stub) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, stub.getRequest());
+        hash = mix(hash, stub.getResponse());
+        hash = mix(hash, stub.getMetadata());
+        hash = mix(hash, stub.getName());
+        hash = mix(hash, stub.getScenarioName());
+        hash = mix(hash, stub.getRequiredScenarioState());
+        hash = mix(hash, stub.getNewScenarioState());
+        hash = (hash ^ (stub.getPriority() != null ? stub.getPriority() : Long.MIN_VALUE)) * FNV_PRIME;
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return (hash ^ -1L) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // The length ends the field, so adjacent fields can't run into each other
+        return (hash ^ value.length()) * FNV_PRIME;
+    }
+}
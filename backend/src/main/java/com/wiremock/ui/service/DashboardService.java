@@ -1,75 +1,135 @@
 package com.wiremock.ui.service;
 
-import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.wiremock.ui.extension.RequestStatsListener;
 import com.wiremock.ui.model.DashboardStats;
+import com.wiremock.ui.model.TimeSeriesWindow;
 import com.wiremock.ui.repository.GraphQLStubRepository;
+import com.wiremock.ui.model.GraphQLStub;
+import com.wiremock.ui.model.SoapStub;
+import com.wiremock.ui.model.Stub;
 import com.wiremock.ui.repository.SoapStubRepository;
 import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.repository.StubsChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * Serves dashboard statistics without scanning stubs or the request journal.
+ * Stub counts come from count queries, answered from indexes, that are only re-run after
+ * a store reports a change (or the TTL passes); request counts are kept live by
+ * {@link RequestStatsListener}.
+ */
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
+    /** Rolling windows served by the time series endpoint, in seconds. */
+    public static final Map<String, Integer> WINDOWS = windows();
+
     private final StubRepository stubRepository;
     private final GraphQLStubRepository graphQLStubRepository;
     private final SoapStubRepository soapStubRepository;
-    private final WireMockServer wireMockServer;
+    private final RequestStatsListener requestStats;
+
+    private final Map<Class<?>, Counts> counts = new ConcurrentHashMap<>();
+
+    // Fallback for writes this node's stores don't see, such as other nodes' on a shared MongoDB
+    @Value("${wiremock.dashboard.count-ttl-ms:30000}")
+    private long countTtlMs;
 
     public DashboardStats getDashboardStats() {
         DashboardStats stats = new DashboardStats();
 
-        // Calculate stub statistics
-        stats.setTotalStubs((int) stubRepository.count());
-        stats.setActiveStubs(stubRepository.findByEnabled(true).size());
-        stats.setStubsWithScenarios(stubRepository.findByScenarioNameIsNotNull().size());
-        
-        // Calculate GraphQL stub statistics
-        stats.setTotalGraphQLStubs((int) graphQLStubRepository.count());
-        stats.setActiveGraphQLStubs(graphQLStubRepository.findByEnabled(true).size());
-        
-        // Calculate SOAP stub statistics
-        stats.setTotalSoapStubs((int) soapStubRepository.count());
-        stats.setActiveSoapStubs(soapStubRepository.findByEnabled(true).size());
-
-        // Calculate request statistics
-        var serveEvents = wireMockServer.getAllServeEvents();
-        List<LoggedRequest> allRequests = serveEvents.stream()
-            .map(event -> event.getRequest())
-            .toList();
-        
-        stats.setTotalRequests(allRequests.size());
-        
-        // Calculate recent requests (last 24 hours)
-        Instant twentyFourHoursAgo = Instant.now().minus(24, ChronoUnit.HOURS);
-        List<LoggedRequest> recentRequests = allRequests.stream()
-            .filter(request -> request.getLoggedDate().toInstant().isAfter(twentyFourHoursAgo))
-            .toList();
-        
-        stats.setRecentRequests(recentRequests.size());
-        
-        // Calculate success and error requests
-        long successCount = serveEvents.stream()
-            .filter(event -> {
-                int status = event.getResponse().getStatus();
-                return status >= 200 && status < 300;
-            })
-            .count();
-        long errorCount = serveEvents.stream()
-            .filter(event -> {
-                int status = event.getResponse().getStatus();
-                return status >= 400;
-            })
-            .count();
-        
-        stats.setSuccessRequests((int) successCount);
-        stats.setErrorRequests((int) errorCount);
+        Counts stubCounts = counts(Stub.class, () -> new Counts(
+            stubRepository.count(),
+            stubRepository.countByEnabled(true),
+            stubRepository.countByScenarioNameIsNotNull()));
+        stats.setTotalStubs((int) stubCounts.total);
+        stats.setActiveStubs((int) stubCounts.active);
+        stats.setStubsWithScenarios((int) stubCounts.withScenarios);
+
+        Counts graphQLCounts = counts(GraphQLStub.class, () -> new Counts(
+            graphQLStubRepository.count(),
+            graphQLStubRepository.countByEnabled(true),
+            0));
+        stats.setTotalGraphQLStubs((int) graphQLCounts.total);
+        stats.setActiveGraphQLStubs((int) graphQLCounts.active);
+
+        Counts soapCounts = counts(SoapStub.class, () -> new Counts(
+            soapStubRepository.count(),
+            soapStubRepository.countByEnabled(true),
+            0));
+        stats.setTotalSoapStubs((int) soapCounts.total);
+        stats.setActiveSoapStubs((int) soapCounts.active);
+
+        stats.setTotalRequests((int) requestStats.getTotal());
+        stats.setRecentRequests((int) requestStats.getTimeSeries()
+            .window("24h", WINDOWS.get("24h"), System.currentTimeMillis(), false).getRequests());
+        stats.setSuccessRequests((int) requestStats.getStatusClassCount(2));
+        stats.setErrorRequests((int) requestStats.getErrorCount());
 
         return stats;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Returns the rolling windows, or only the named one with per-bucket points.
+     */
+    public List<TimeSeriesWindow> getTimeSeries(String window) {
+        long now = System.currentTimeMillis();
+        if (window != null) {
+            Integer duration = WINDOWS.get(window);
+            if (duration == null) {
+                throw new IllegalArgumentException("Unknown window '" + window + "', expected one of " + WINDOWS.keySet());
+            }
+            return List.of(requestStats.getTimeSeries().window(window, duration, now, true));
+        }
+        return WINDOWS.entrySet().stream()
+            .map(entry -> requestStats.getTimeSeries().window(entry.getKey(), entry.getValue(), now, false))
+            .toList();
+    }
+
+    @EventListener
+    public void onStubsChanged(StubsChangedEvent event) {
+        counts.remove(event.type());
+    }
+
+    private Counts counts(Class<?> type, Supplier<Counts> loader) {
+        Counts current = counts.get(type);
+        if (current != null && System.currentTimeMillis() - current.computedAt < countTtlMs) {
+            return current;
+        }
+        Counts loaded = loader.get();
+        counts.put(type, loaded);
+        return loaded;
+    }
+
+    private static Map<String, Integer> windows() {
+        Map<String, Integer> windows = new LinkedHashMap<>();
+        windows.put("1m", 60);
+        windows.put("5m", 300);
+        windows.put("1h", 3600);
+        windows.put("24h", 86400);
+        return Collections.unmodifiableMap(windows);
+    }
+
+    private static final class Counts {
+        private final long total;
+        private final long active;
+        private final long withScenarios;
+        private final long computedAt = System.currentTimeMillis();
+
+        private Counts(long total, long active, long withScenarios) {
+            this.total = total;
+            this.active = active;
+            this.withScenarios = withScenarios;
+        }
+    }
+}
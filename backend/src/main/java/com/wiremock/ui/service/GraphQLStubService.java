@@ -2,16 +2,23 @@ package com.wiremock.ui.service;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.model.GraphQLStub;
 import com.wiremock.ui.repository.GraphQLStubRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@Timed(value = "wiremock.ui.service", extraTags = {"service", "graphql"})
 @RequiredArgsConstructor
 public class GraphQLStubService {
     private final GraphQLStubRepository graphQLStubRepository;
@@ -30,6 +37,11 @@ public class GraphQLStubService {
         return graphQLStubRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public StubPage<GraphQLStub> findStubs(StubQuery query) {
+        return graphQLStubRepository.find(query);
+    }
+
     @Transactional(readOnly = true)
     public GraphQLStub getStubById(String id) {
         return graphQLStubRepository.findById(id)
@@ -65,27 +77,56 @@ public class GraphQLStubService {
         removeWireMockStub(stub);
     }
 
+    /**
+     * Builds the WireMock mapping for a GraphQL stub without registering it.
+     */
+    public StubMapping toStubMapping(GraphQLStub stub) {
+        String responseJson = stub.getResponse();
+        
+        return WireMock.post("/graphql")
+            .withId(mappingIdFor(stub))
+            .withRequestBody(WireMock.matchingJsonPath("$.operationName", 
+                WireMock.equalTo(stub.getOperationName())))
+            .withRequestBody(WireMock.matchingJsonPath("$.query", 
+                WireMock.equalTo(stub.getQuery())))
+            .willReturn(WireMock.aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(responseJson))
+            .build();
+    }
+
+    public UUID mappingIdFor(GraphQLStub stub) {
+        return mappingIdFor(stub.getId());
+    }
+
+    /** Registers a stub changed elsewhere (e.g. by another node) with the local WireMock. */
+    public void registerMapping(GraphQLStub stub) {
+        updateWireMockStub(stub);
+    }
+
+    /** Removes the mapping of a stub deleted elsewhere. */
+    public void removeMapping(String stubId) {
+        wireMockServer.removeStubMapping(mappingIdFor(stubId));
+    }
+
+    private static UUID mappingIdFor(String stubId) {
+        return UUID.nameUUIDFromBytes(("graphql_stubs/" + stubId).getBytes(StandardCharsets.UTF_8));
+    }
+
     private void updateWireMockStub(GraphQLStub stub) {
         try {
-            String responseJson = stub.getResponse();
-            
-            wireMockServer.stubFor(WireMock.post("/graphql")
-                .withRequestBody(WireMock.matchingJsonPath("$.operationName", 
-                    WireMock.equalTo(stub.getOperationName())))
-                .withRequestBody(WireMock.matchingJsonPath("$.query", 
-                    WireMock.equalTo(stub.getQuery())))
-                .willReturn(WireMock.aResponse()
-                    .withHeader("Content-Type", "application/json")
-                    .withBody(responseJson)));
+            StubMapping mapping = toStubMapping(stub);
+            if (wireMockServer.getStubMapping(mapping.getId()).isPresent()) {
+                wireMockServer.editStubMapping(mapping);
+            } else {
+                wireMockServer.addStubMapping(mapping);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to update WireMock GraphQL stub", e);
         }
     }
 
     private void removeWireMockStub(GraphQLStub stub) {
-        wireMockServer.removeStubMapping(WireMock.post("/graphql")
-            .withRequestBody(WireMock.matchingJsonPath("$.operationName", 
-                WireMock.equalTo(stub.getOperationName())))
-            .build());
+        wireMockServer.removeStubMapping(mappingIdFor(stub));
     }
 }
\ No newline at end of file
@@ -0,0 +1,339 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubImportBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.extension.MappingChangeTracker;
+import com.wiremock.ui.extension.RecordingCaptureListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Periodically writes every registered WireMock mapping and scenario state to a single
+ * checksummed file, and loads it at boot so the mock serves the last known stubs before
+ * MongoDB has been consulted (or when it can't be reached). The stub id of each mapping
+ * travels in the mapping's own metadata.
+ *
+ * <p>Layout, big-endian: magic {@code WMSNAP}, format version (short), creation time
+ * (long), mapping count (int), scenario count (int), body length (long), CRC32 of the
+ * body (int); then the body: each mapping as a length-prefixed WireMock JSON record,
+ * followed by each scenario's name and state as length-prefixed UTF-8.
+ *
+ * <p>A snapshot is always written whole: any change, however small, serialises every
+ * mapping again, inline response bodies included. With many large inline bodies that is
+ * the cost of each interval in which something changed; raise
+ * {@code wiremock.snapshot.interval-ms} or move the bodies to body files to reduce it.
+ * Restoring skips records that can no longer be read, and the stub store supplies them
+ * when it is reconciled.
+ */
+@Slf4j
+@Service
+public class MappingSnapshotService {
+    private static final byte[] MAGIC = "WMSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = MAGIC.length + 2 + 8 + 4 + 4 + 8 + 4;
+
+    private final WireMockServer wireMockServer;
+    private final MappingChangeTracker changeTracker;
+
+    @Value("${wiremock.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wiremock.snapshot.file:${wiremock.server.root-dir}/snapshot/mappings.snap}")
+    private String file;
+
+    @Value("${wiremock.snapshot.loader-threads:0}")
+    private int loaderThreads;
+
+    // Generation and scenario states the last snapshot was taken at
+    private long writtenGeneration = -1;
+    private Map<String, String> writtenScenarios = Map.of();
+
+    public MappingSnapshotService(WireMockServer wireMockServer, MappingChangeTracker changeTracker) {
+        this.wireMockServer = wireMockServer;
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Registers the mappings from the last snapshot, if there is a valid one. Returns
+     * whether anything was restored.
+     */
+    public boolean restore() {
+        Path path = Paths.get(file);
+        if (!enabled || !Files.isRegularFile(path)) {
+            return false;
+        }
+        long startedAt = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                log.warn("Ignoring mapping snapshot {}: unexpected size {}", path, channel.size());
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Snapshot snapshot = read(buffer, path);
+            if (snapshot == null) {
+                return false;
+            }
+
+            StubImportBuilder batch = StubImport.stubImport().overwriteExisting().doNotDeleteExistingStubs();
+            snapshot.mappings.forEach(batch::stub);
+            wireMockServer.importStubs(batch.build());
+            snapshot.scenarios.forEach((name, state) -> {
+                if (!Scenario.STARTED.equals(state)) {
+                    wireMockServer.setScenarioState(name, state);
+                }
+            });
+
+            writtenGeneration = changeTracker.getGeneration();
+            writtenScenarios = snapshot.scenarios;
+            log.info("Restored {} mappings from the snapshot of {} in {} ms", snapshot.mappings.size(),
+                Instant.ofEpochMilli(snapshot.createdAt), (System.nanoTime() - startedAt) / 1_000_000);
+            if (snapshot.skipped > 0) {
+                log.warn("Skipped {} unreadable mappings in the snapshot; they load from the stub store", snapshot.skipped);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore mapping snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Writes a new snapshot if mappings or scenario states changed since the last one. */
+    @Scheduled(fixedDelayString = "${wiremock.snapshot.interval-ms:30000}",
+        initialDelayString = "${wiremock.snapshot.interval-ms:30000}")
+    public synchronized void writeIfChanged() {
+        if (!enabled) {
+            return;
+        }
+        long generation = changeTracker.getGeneration();
+        Map<String, String> scenarios = scenarioStates();
+        if (generation == writtenGeneration && scenarios.equals(writtenScenarios)) {
+            return;
+        }
+        try {
+            // Recording sessions' proxy mappings end with the process that runs the session
+            write(wireMockServer.getStubMappings().stream()
+                .filter(mapping -> !RecordingCaptureListener.isSessionProxy(mapping))
+                .toList(), scenarios);
+            writtenGeneration = generation;
+            writtenScenarios = scenarios;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write mapping snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        writeIfChanged();
+    }
+
+    private void write(List<StubMapping> mappings, Map<String, String> scenarios) throws IOException {
+        long startedAt = System.nanoTime();
+        Path path = Paths.get(file);
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), "mappings-", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            // The body goes after room for the header, which needs the body's length and checksum
+            channel.position(HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            CountingOutputStream counter = new CountingOutputStream(Channels.newOutputStream(channel));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(counter, crc), 64 * 1024));
+            // WireMock's own format, in WireMock's order, so importing reproduces match precedence
+            for (StubMapping mapping : mappings) {
+                byte[] json = Json.toByteArray(mapping);
+                out.writeInt(json.length);
+                out.write(json);
+            }
+            for (Map.Entry<String, String> scenario : scenarios.entrySet()) {
+                writeString(out, scenario.getKey());
+                writeString(out, scenario.getValue());
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .put(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putLong(System.currentTimeMillis())
+                .putInt(mappings.size())
+                .putInt(scenarios.size())
+                .putLong(counter.count)
+                .putInt((int) crc.getValue())
+                .flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Wrote mapping snapshot of {} mappings in {} ms", mappings.size(),
+            (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private Snapshot read(ByteBuffer buffer, Path path) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        short version = buffer.getShort();
+        if (!Arrays.equals(magic, MAGIC) || version != FORMAT_VERSION) {
+            log.warn("Ignoring mapping snapshot {}: not a version {} snapshot", path, FORMAT_VERSION);
+            return null;
+        }
+        long createdAt = buffer.getLong();
+        int mappingCount = buffer.getInt();
+        int scenarioCount = buffer.getInt();
+        long bodyLength = buffer.getLong();
+        int checksum = buffer.getInt();
+        if (bodyLength != buffer.capacity() - HEADER_BYTES) {
+            log.warn("Ignoring mapping snapshot {}: truncated", path);
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_BYTES, (int) bodyLength));
+        if ((int) crc.getValue() != checksum) {
+            log.warn("Ignoring mapping snapshot {}: checksum mismatch", path);
+            return null;
+        }
+
+        // Locate the records first, then decode them in parallel straight from the mapped file
+        int[] offsets = new int[mappingCount];
+        int[] lengths = new int[mappingCount];
+        for (int i = 0; i < mappingCount; i++) {
+            lengths[i] = buffer.getInt();
+            offsets[i] = buffer.position();
+            buffer.position(offsets[i] + lengths[i]);
+        }
+        Map<String, String> scenarios = new LinkedHashMap<>();
+        for (int i = 0; i < scenarioCount; i++) {
+            scenarios.put(readString(buffer), readString(buffer));
+        }
+        List<StubMapping> mappings = decode(buffer, offsets, lengths);
+        return new Snapshot(createdAt, mappings, mappingCount - mappings.size(), scenarios);
+    }
+
+    /** Decodes the mapping records, leaving out any that fail to decode. */
+    private List<StubMapping> decode(ByteBuffer buffer, int[] offsets, int[] lengths) throws IOException {
+        int threads = loaderThreads > 0 ? loaderThreads : Runtime.getRuntime().availableProcessors();
+        int chunk = Math.max(1, (offsets.length + threads - 1) / threads);
+        ObjectMapper mapper = Json.getObjectMapper();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<StubMapping>>> parts = new ArrayList<>();
+            for (int start = 0; start < offsets.length; start += chunk) {
+                int from = start;
+                int to = Math.min(offsets.length, start + chunk);
+                parts.add(pool.submit(() -> {
+                    List<StubMapping> part = new ArrayList<>(to - from);
+                    for (int i = from; i < to; i++) {
+                        byte[] json = new byte[lengths[i]];
+                        buffer.get(offsets[i], json);
+                        try {
+                            part.add(mapper.readValue(json, StubMapping.class));
+                        } catch (IOException | RuntimeException e) {
+                            // An extension type that is gone, say; the rest of the snapshot still counts
+                            log.warn("Skipping unreadable mapping {} in the snapshot: {}", i, e.getMessage());
+                        }
+                    }
+                    return part;
+                }));
+            }
+            List<StubMapping> mappings = new ArrayList<>(offsets.length);
+            for (Future<List<StubMapping>> part : parts) {
+                mappings.addAll(part.get());
+            }
+            return mappings;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding the snapshot", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unreadable mapping in the snapshot: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Map<String, String> scenarioStates() {
+        Map<String, String> states = new LinkedHashMap<>();
+        for (Scenario scenario : wireMockServer.getAllScenarios().getScenarios()) {
+            states.put(scenario.getName(), scenario.getState());
+        }
+        return states;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Snapshot(long createdAt, List<StubMapping> mappings, int skipped, Map<String, String> scenarios) {
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,67 +1,558 @@
 package com.wiremock.ui.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.recording.RecordSpec;
-import com.github.tomakehurst.wiremock.recording.RecordSpecBuilder;
-import com.github.tomakehurst.wiremock.recording.SnapshotRecordResult;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ContentTypes;
+import com.github.tomakehurst.wiremock.common.Gzip;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.wiremock.ui.dto.RecordingSessionRequest;
+import com.wiremock.ui.extension.RecordingCaptureListener;
+import com.wiremock.ui.model.RecordingSession;
 import com.wiremock.ui.model.RecordingStatus;
 import com.wiremock.ui.model.RecordingStatusResponse;
+import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.util.HttpEncodings;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.io.File;
+import org.springframework.util.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+
+/**
+ * Records traffic as stubs through named sessions that run side by side. Each session
+ * registers a proxy mapping for its URL and header filters that forwards to its target
+ * over WireMock's shared, pooled proxy client; what that mapping serves is handed to the
+ * session's writer thread, which stores it in chunks as it arrives, collapsing requests
+ * with the same {@link RequestSignature}. Recorded stubs are stored disabled and tagged
+ * with the session's id; playback enables just that set, leaving every other stub as it is.
+ *
+ * <p>Response bodies over {@code wiremock.recording.body-file-threshold-bytes} are not
+ * inlined: they go to the {@link BodyFileService} store, keyed by their SHA-256, so a
+ * payload recorded many times is kept once and served from disk.
+ */
+@Slf4j
 @Service
 public class RecordingService {
+    /** Stub metadata holding the header filters of the session a stub was recorded in. */
+    public static final String RECORDING_HEADERS = "recordingHeaders";
+
+    // Describe the recorded transfer rather than the response; WireMock sets its own
+    private static final Set<String> TRANSPORT_HEADERS = Set.of("content-length", "transfer-encoding", "connection");
 
     private final WireMockServer wireMockServer;
-    private RecordingStatus currentStatus = RecordingStatus.NeverStarted;
-    private String targetUrl;
+    private final RecordingCaptureListener captureListener;
+    private final StubRepository stubRepository;
+    private final StubService stubService;
+    private final BodyFileService bodyFileService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${wiremock.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${wiremock.recording.body-file-threshold-bytes:16384}")
+    private long bodyFileThreshold;
+
+    @Value("${wiremock.recording.max-body-bytes:10485760}")
+    private long maxBodyBytes;
+
+    @Value("${wiremock.recording.queue-capacity:10000}")
+    private int queueCapacity;
 
-    public RecordingService(WireMockServer wireMockServer) {
+    @Value("${wiremock.recording.max-queued-mb:256}")
+    private long maxQueuedMb;
+
+    @Value("${wiremock.recording.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // The session the single-recording endpoints start, stop and report on
+    private volatile String lastSessionId;
+    private String playingRecordingId;
+
+    public RecordingService(WireMockServer wireMockServer, RecordingCaptureListener captureListener,
+                            StubRepository stubRepository, StubService stubService,
+                            BodyFileService bodyFileService, ObjectMapper objectMapper) {
         this.wireMockServer = wireMockServer;
+        this.captureListener = captureListener;
+        this.stubRepository = stubRepository;
+        this.stubService = stubService;
+        this.bodyFileService = bodyFileService;
+        this.objectMapper = objectMapper;
     }
 
-    public void startRecording(String targetUrl) {
-        this.targetUrl = targetUrl;
-        RecordSpec recordSpec = new RecordSpecBuilder()
-            .forTarget(targetUrl)
-            .extractTextBodiesOver(9999999)
-            .extractBinaryBodiesOver(9999999)
-            .build();
+    public synchronized RecordingSession startSession(RecordingSessionRequest request) {
+        String targetUrl = request.getTargetUrl();
+        if (!StringUtils.hasText(targetUrl) || !targetUrl.matches("(?i)https?://.+")) {
+            throw new IllegalArgumentException("targetUrl must be an http or https URL");
+        }
+        String urlPattern = StringUtils.hasText(request.getUrlPattern()) ? request.getUrlPattern() : ".*";
+        try {
+            Pattern.compile(urlPattern);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid urlPattern: " + e.getDescription());
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (request.getHeaders() != null) {
+            request.getHeaders().forEach((name, value) -> {
+                if (!StringUtils.hasText(name) || value == null) {
+                    throw new IllegalArgumentException("Header filters need a name and a value");
+                }
+                headers.put(name, value);
+            });
+        }
+        for (Session other : sessions.values()) {
+            // The newer proxy mapping would take every request from the older one
+            if (other.status == RecordingStatus.Recording && other.urlPattern.equals(urlPattern)
+                && other.headers.equals(headers)) {
+                throw new IllegalStateException("Session '" + other.name + "' already records requests matching these filters");
+            }
+        }
+
+        String id = new ObjectId().toHexString();
+        String name = StringUtils.hasText(request.getName()) ? request.getName() : targetUrl;
+        Session session = new Session(id, name, targetUrl, urlPattern, headers);
+        sessions.put(id, session);
+        session.start();
+        lastSessionId = id;
+        log.info("Recording session '{}' ({}) started for {} matching {} {}", name, id, targetUrl, urlPattern, headers);
+        return session.view();
+    }
 
-        wireMockServer.startRecording(recordSpec);
-        currentStatus = RecordingStatus.Recording;
+    /** Stops a session, waiting until everything it captured is stored. */
+    public RecordingSession stopSession(String id) {
+        Session session = session(id);
+        session.stop();
+        return session.view();
+    }
+
+    public RecordingSession getSession(String id) {
+        return session(id).view();
+    }
+
+    public List<RecordingSession> getSessions() {
+        return sessions.values().stream()
+            .map(Session::view)
+            .sorted(Comparator.comparing(RecordingSession::getStartedAt).reversed())
+            .toList();
+    }
+
+    /** Forgets a stopped session; its stubs stay. */
+    public void removeSession(String id) {
+        Session session = session(id);
+        if (session.status == RecordingStatus.Recording) {
+            throw new IllegalStateException("Stop recording session '" + session.name + "' before removing it");
+        }
+        sessions.remove(id);
+    }
+
+    public void startRecording(String targetUrl) {
+        RecordingSessionRequest request = new RecordingSessionRequest();
+        request.setTargetUrl(targetUrl);
+        startSession(request);
     }
 
     public void stopRecording() {
-        SnapshotRecordResult recordResult = wireMockServer.stopRecording();
-        currentStatus = RecordingStatus.Stopped;
-        // You can process recordResult here if needed
+        Session session = lastSessionId != null ? sessions.get(lastSessionId) : null;
+        if (session != null) {
+            session.stop();
+        }
     }
 
-    public RecordingStatusResponse getStatus() {
+    public synchronized RecordingStatusResponse getStatus() {
         RecordingStatusResponse response = new RecordingStatusResponse();
-        response.setStatus(currentStatus);
-        response.setTargetUrl(targetUrl);
+        Session session = lastSessionId != null ? sessions.get(lastSessionId) : null;
+        if (playingRecordingId != null) {
+            response.setStatus(RecordingStatus.Playing);
+            response.setRecordingId(playingRecordingId);
+        } else {
+            response.setStatus(session != null ? session.status : RecordingStatus.NeverStarted);
+            response.setRecordingId(session != null ? session.id : null);
+        }
+        if (session != null) {
+            response.setTargetUrl(session.targetUrl);
+            response.setRecordedCount(session.recorded.get());
+            response.setStoredCount(session.stored.get());
+            response.setDuplicateCount(session.duplicates.get());
+        }
         return response;
     }
 
-    public void startPlayback() {
-        if (currentStatus == RecordingStatus.Stopped) {
-            // Enable all recorded stubs
-            wireMockServer.resetAll();
-            currentStatus = RecordingStatus.Playing;
+    /**
+     * Serves the stubs of a recording, the last one when no id is given, alongside all
+     * other stubs.
+     */
+    public synchronized void startPlayback(String requestedRecordingId) {
+        String id = requestedRecordingId != null ? requestedRecordingId : lastSessionId;
+        if (id == null) {
+            throw new IllegalStateException("Nothing has been recorded yet");
+        }
+        Session session = sessions.get(id);
+        if (session != null && session.status == RecordingStatus.Recording) {
+            throw new IllegalStateException("Stop recording session '" + session.name + "' before playing it back");
+        }
+        if (playingRecordingId != null && !id.equals(playingRecordingId)) {
+            setRecordingEnabled(playingRecordingId, false);
         }
+        int enabled = setRecordingEnabled(id, true);
+        if (enabled == 0) {
+            throw new IllegalStateException("No stubs found for recording " + id);
+        }
+        playingRecordingId = id;
     }
 
-    public void stopPlayback() {
-        if (currentStatus == RecordingStatus.Playing) {
-            // Reset to default state
-            wireMockServer.resetAll();
-            currentStatus = RecordingStatus.Stopped;
+    public synchronized void stopPlayback() {
+        if (playingRecordingId != null) {
+            setRecordingEnabled(playingRecordingId, false);
+            playingRecordingId = null;
         }
     }
 
     public String getTargetUrl() {
-        return targetUrl;
+        Session session = lastSessionId != null ? sessions.get(lastSessionId) : null;
+        return session != null ? session.targetUrl : null;
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        // Stores what is still queued before WireMock goes away
+        sessions.values().forEach(Session::stop);
+    }
+
+    private Session session(String id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            throw new RuntimeException("Recording session not found with ID: " + id);
+        }
+        return session;
+    }
+
+    /** Enables or disables a recording's stubs in chunks, registering or removing their mappings. */
+    private int setRecordingEnabled(String id, boolean enabled) {
+        int changed = 0;
+        List<Stub> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Stub> stubs = stubRepository.streamByRecordingId(id)) {
+            for (Stub stub : (Iterable<Stub>) stubs::iterator) {
+                stub.setEnabled(enabled);
+                chunk.add(stub);
+                if (chunk.size() >= chunkSize) {
+                    changed += applyEnabled(chunk, enabled);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        changed += applyEnabled(chunk, enabled);
+        log.info("{} {} stubs of recording {}", enabled ? "Enabled" : "Disabled", changed, id);
+        return changed;
+    }
+
+    private int applyEnabled(List<Stub> chunk, boolean enabled) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        stubRepository.saveAll(chunk);
+        if (enabled) {
+            stubService.registerMappings(chunk);
+        } else {
+            stubService.unregisterMappings(chunk);
+        }
+        return chunk.size();
+    }
+
+    /** The request of a served event in the stub API shape. */
+    private ObjectNode requestOf(LoggedRequest loggedRequest) {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("method", loggedRequest.getMethod().getName());
+        request.put("url", loggedRequest.getUrl());
+        byte[] body = loggedRequest.getBody();
+        if (body != null && body.length > 0) {
+            request.set("body", jsonOrText(loggedRequest.getBodyAsString()));
+        }
+        return request;
+    }
+
+    /** The upstream response of a proxied request in the stub API shape. */
+    private ObjectNode responseOf(RecordingCaptureListener.Capture upstream, Session session) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("status", upstream.status());
+
+        byte[] body = upstream.body();
+        boolean gunzipped = false;
+        if (body != null && body.length > 0 && HttpEncodings.isGzipEncoded(upstream.headers())) {
+            try {
+                body = Gzip.unGzip(body);
+                gunzipped = true;
+            } catch (RuntimeException e) {
+                // Mislabelled upstream body: record it, and its encoding header, as received
+                log.debug("Recording {}: body labelled gzip did not decode: {}", session.id, e.getMessage());
+            }
+        }
+        ObjectNode headers = objectMapper.createObjectNode();
+        if (upstream.headers() != null) {
+            for (HttpHeader header : upstream.headers().all()) {
+                String key = header.key().toLowerCase(Locale.ROOT);
+                if (TRANSPORT_HEADERS.contains(key) || (gunzipped && key.equals("content-encoding"))) {
+                    continue;
+                }
+                // Stubs hold one value per header
+                headers.put(header.key(), String.join(", ", header.values()));
+            }
+        }
+        if (!headers.isEmpty()) {
+            response.set("headers", headers);
+        }
+
+        if (body == null || body.length == 0) {
+            return response;
+        }
+        ContentTypeHeader contentType = upstream.headers() != null
+            ? upstream.headers().getContentTypeHeader() : ContentTypeHeader.absent();
+        String mimeType = contentType.mimeTypePart();
+        if (body.length > bodyFileThreshold) {
+            response.put("bodyFileName", bodyFileService.store(new ByteArrayInputStream(body)).getBodyFileName());
+            session.bodyFiles.incrementAndGet();
+        } else if (mimeType != null && ContentTypes.determineIsTextFromMimeType(mimeType)) {
+            String text = new String(body, contentType.charset());
+            response.set("body", mimeType.contains("json") ? jsonOrText(text) : TextNode.valueOf(text));
+        } else {
+            response.put("base64Body", Base64.getEncoder().encodeToString(body));
+        }
+        return response;
+    }
+
+    private JsonNode jsonOrText(String text) {
+        String trimmed = text.trim();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            try {
+                return objectMapper.readTree(trimmed);
+            } catch (IOException e) {
+                // Not JSON after all
+            }
+        }
+        return TextNode.valueOf(text);
+    }
+
+    private final class Session {
+        private final String id;
+        private final String name;
+        private final String targetUrl;
+        private final String urlPattern;
+        private final Map<String, String> headers;
+        private final Instant startedAt = Instant.now();
+        private final UUID proxyMappingId = UUID.randomUUID();
+        // Bounded by count and by queued body bytes, so a slow store cannot exhaust the heap
+        private final BlockingQueue<RecordingCaptureListener.Capture> captured = new LinkedBlockingQueue<>(queueCapacity);
+        private final AtomicLong queuedBytes = new AtomicLong();
+        // Only touched by the writer thread
+        private final Set<String> signatures = new HashSet<>();
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicInteger stored = new AtomicInteger();
+        private final AtomicInteger duplicates = new AtomicInteger();
+        private final AtomicInteger bodyFiles = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile RecordingStatus status = RecordingStatus.Recording;
+        private volatile boolean overflowing;
+        private volatile Instant stoppedAt;
+        private Thread writer;
+
+        private Session(String id, String name, String targetUrl, String urlPattern, Map<String, String> headers) {
+            this.id = id;
+            this.name = name;
+            this.targetUrl = targetUrl;
+            this.urlPattern = urlPattern;
+            this.headers = headers;
+        }
+
+        private void start() {
+            MappingBuilder proxy = WireMock.any(WireMock.urlMatching(urlPattern))
+                // Ahead of ordinary stubs, so recorded requests reach the target
+                .atPriority(1)
+                .withMetadata(Map.of(RecordingCaptureListener.SESSION_METADATA, id))
+                .willReturn(WireMock.aResponse().proxiedFrom(targetUrl).withTransformers(RecordingCaptureListener.NAME));
+            headers.forEach((header, value) -> proxy.withHeader(header, WireMock.equalTo(value)));
+            StubMapping mapping = proxy.build();
+            mapping.setId(proxyMappingId);
+
+            captureListener.register(wireMockServer, mapping, this::offer);
+            writer = new Thread(this::write, "recording-" + id);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        private synchronized void stop() {
+            if (status != RecordingStatus.Recording) {
+                return;
+            }
+            captureListener.unregister(wireMockServer, proxyMappingId);
+            status = RecordingStatus.Stopped;
+            stoppedAt = Instant.now();
+            try {
+                // The writer stores what is queued before it ends
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.info("Recording session '{}' ({}) stored {} stubs from {} requests ({} duplicates, {} failed, {} body files)",
+                name, id, stored.get(), recorded.get(), duplicates.get(), failed.get(), bodyFiles.get());
+        }
+
+        /**
+         * Queues a capture for the writer, on the serving thread. Requests are recorded as
+         * failed instead when their response is too large to record, or when the writer has
+         * fallen so far behind that the queue is full; a single capture is always accepted
+         * whatever its size.
+         */
+        private void offer(RecordingCaptureListener.Capture capture) {
+            long size = capture.body() != null ? capture.body().length : 0;
+            if (size > maxBodyBytes) {
+                recorded.incrementAndGet();
+                failed.incrementAndGet();
+                log.warn("Not recording request {}: response body of {} bytes exceeds wiremock.recording.max-body-bytes",
+                    capture.event().getId(), size);
+                return;
+            }
+            long queued = queuedBytes.addAndGet(size);
+            if ((queued > maxQueuedMb * 1024 * 1024 && queued != size) || !captured.offer(capture)) {
+                queuedBytes.addAndGet(-size);
+                recorded.incrementAndGet();
+                failed.incrementAndGet();
+                if (!overflowing) {
+                    log.warn("Recording session '{}' is storing slower than traffic arrives; dropping requests", name);
+                }
+                overflowing = true;
+            } else {
+                overflowing = false;
+            }
+        }
+
+        private void write() {
+            List<Stub> chunk = new ArrayList<>(chunkSize);
+            long lastFlush = System.currentTimeMillis();
+            while (status == RecordingStatus.Recording || !captured.isEmpty()) {
+                RecordingCaptureListener.Capture event;
+                try {
+                    event = captured.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (event != null) {
+                    queuedBytes.addAndGet(event.body() != null ? -event.body().length : 0);
+                    capture(event, chunk);
+                }
+                // Full chunks go out at once, partial ones every so often so counts keep up
+                if (chunk.size() >= chunkSize
+                    || (!chunk.isEmpty() && System.currentTimeMillis() - lastFlush >= flushIntervalMs)) {
+                    flush(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                    lastFlush = System.currentTimeMillis();
+                }
+            }
+            flush(chunk);
+        }
+
+        private void capture(RecordingCaptureListener.Capture capture, List<Stub> chunk) {
+            recorded.incrementAndGet();
+            ServeEvent event = capture.event();
+            try {
+                ObjectNode request = requestOf(event.getRequest());
+                String signature = RequestSignature.of(request);
+                if (!signatures.add(signature)) {
+                    duplicates.incrementAndGet();
+                    return;
+                }
+                ObjectNode response = responseOf(capture, this);
+
+                ObjectNode metadata = objectMapper.createObjectNode();
+                metadata.put("recordingId", id);
+                metadata.put("recordingName", name);
+                metadata.put("targetUrl", targetUrl);
+                metadata.put("signature", signature);
+                if (event.getRequest().getLoggedDate() != null) {
+                    // Lets a replay space requests as they first arrived
+                    metadata.put("recordedAt", event.getRequest().getLoggedDate().getTime());
+                }
+                if (!headers.isEmpty()) {
+                    // Replays send them, so the requests pass the session's filters again
+                    metadata.set(RECORDING_HEADERS, objectMapper.valueToTree(headers));
+                }
+
+                Stub stub = new Stub();
+                stub.setName("Recorded " + request.get("method").asText() + " " + request.get("url").asText());
+                stub.setRequest(objectMapper.writeValueAsString(request));
+                stub.setResponse(objectMapper.writeValueAsString(response));
+                stub.setMetadata(objectMapper.writeValueAsString(metadata));
+                stub.setRecordingId(id);
+                stub.setPersistent(true);
+                stub.setEnabled(false);
+                chunk.add(stub);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.warn("Skipping recorded request {} that could not be converted: {}", event.getId(), e.getMessage());
+            }
+        }
+
+        private void flush(List<Stub> chunk) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                stored.addAndGet(stubRepository.saveAll(chunk));
+            } catch (RuntimeException e) {
+                failed.addAndGet(chunk.size());
+                log.error("Failed to store {} stubs of recording session '{}': {}", chunk.size(), name, e.getMessage(), e);
+            }
+        }
+
+        private RecordingSession view() {
+            RecordingSession view = new RecordingSession();
+            view.setId(id);
+            view.setName(name);
+            view.setTargetUrl(targetUrl);
+            view.setUrlPattern(urlPattern);
+            view.setHeaders(headers);
+            view.setStatus(status);
+            view.setStartedAt(startedAt);
+            view.setStoppedAt(stoppedAt);
+            view.setRecordedCount(recorded.get());
+            view.setStoredCount(stored.get());
+            view.setDuplicateCount(duplicates.get());
+            view.setBodyFileCount(bodyFiles.get());
+            view.setFailedCount(failed.get());
+            return view;
+        }
     }
-} 
\ No newline at end of file
+}
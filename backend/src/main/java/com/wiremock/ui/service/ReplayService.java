@@ -0,0 +1,397 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.ui.dto.RequestPage;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.dto.ReplayRunRequest;
+import com.wiremock.ui.journal.RequestJournalStore;
+import com.wiremock.ui.model.JournalEntry;
+import com.wiremock.ui.model.ReplayReport;
+import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.replay.ReplayRequest;
+import com.wiremock.ui.replay.ReplayRun;
+import com.wiremock.ui.repository.StubRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Replays captured traffic against the local mock server or any other target, for
+ * capacity tests with real request shapes. Traffic comes from the request journal, from
+ * a recording's stubs or from an uploaded NDJSON file, and is loaded into memory before
+ * the run starts, up to {@code wiremock.replay.max-requests}.
+ *
+ * <p>Bodies are replayed as the source kept them: the journal truncates them to its
+ * {@code max-body-bytes} and keeps them as text, so binary bodies do not survive it.
+ */
+@Slf4j
+@Service
+public class ReplayService {
+    private static final int JOURNAL_PAGE = 1000;
+
+    private final RequestJournalStore journalStore;
+    private final StubRepository stubRepository;
+    private final RecordingService recordingService;
+    private final ObjectMapper objectMapper;
+    private final Executor virtualThreads;
+
+    @Value("${wiremock.server.port}")
+    private int mockPort;
+
+    @Value("${wiremock.replay.max-requests:200000}")
+    private int maxRequests;
+
+    @Value("${wiremock.replay.default-concurrency:256}")
+    private int defaultConcurrency;
+
+    @Value("${wiremock.replay.max-concurrency:512}")
+    private int maxConcurrency;
+
+    @Value("${wiremock.replay.default-timeout-ms:30000}")
+    private int defaultTimeoutMs;
+
+    @Value("${wiremock.replay.max-active-runs:4}")
+    private int maxActiveRuns;
+
+    @Value("${wiremock.replay.history:20}")
+    private int history;
+
+    // In start order, so the oldest finished runs are dropped first
+    private final Map<String, ReplayRun> runs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public ReplayService(RequestJournalStore journalStore, StubRepository stubRepository,
+                         RecordingService recordingService, ObjectMapper objectMapper) {
+        this.journalStore = journalStore;
+        this.stubRepository = stubRepository;
+        this.recordingService = recordingService;
+        this.objectMapper = objectMapper;
+        this.virtualThreads = VirtualThreads.areSupported() ? VirtualThreads.getDefaultVirtualThreadsExecutor() : null;
+        if (virtualThreads == null) {
+            log.info("Virtual threads are not supported by this JVM; replays send from a platform thread pool");
+        }
+    }
+
+    /** Starts a replay of the journal or of a recording. */
+    public ReplayReport start(ReplayRunRequest request) {
+        String source = request.getSource() == null ? "" : request.getSource().trim().toLowerCase(Locale.ROOT);
+        List<ReplayRequest> requests;
+        switch (source) {
+            case "journal" -> requests = fromJournal(request.getJournal() != null ? request.getJournal() : new RequestQuery());
+            case "recording" -> {
+                if (!StringUtils.hasText(request.getRecordingId())) {
+                    throw new IllegalArgumentException("recordingId is required to replay a recording");
+                }
+                requests = fromRecording(request.getRecordingId(), request.getRatePerSecond() != null);
+            }
+            default -> throw new IllegalArgumentException("Unknown replay source '" + request.getSource()
+                + "', expected journal or recording");
+        }
+        return start(source, requests, request);
+    }
+
+    /**
+     * Starts a replay of NDJSON traffic: one request per line, either a journal entry as
+     * the requests API returns it, or {@code {method, url, headers, body, offsetMillis}}.
+     */
+    public ReplayReport startUpload(InputStream content, ReplayRunRequest request) {
+        return start("upload", fromNdjson(content), request);
+    }
+
+    public List<ReplayReport> getRuns() {
+        List<ReplayRun> snapshot;
+        synchronized (runs) {
+            snapshot = new ArrayList<>(runs.values());
+        }
+        Collections.reverse(snapshot);
+        return snapshot.stream().map(ReplayRun::report).toList();
+    }
+
+    public ReplayReport getRun(String id) {
+        return run(id).report();
+    }
+
+    public ReplayReport cancel(String id) {
+        ReplayRun run = run(id);
+        run.cancel();
+        return run.report();
+    }
+
+    @PreDestroy
+    public void cancelAll() {
+        synchronized (runs) {
+            runs.values().forEach(ReplayRun::cancel);
+        }
+    }
+
+    private ReplayReport start(String source, List<ReplayRequest> requests, ReplayRunRequest request) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("There is no traffic to replay");
+        }
+        String targetUrl = StringUtils.hasText(request.getTargetUrl())
+            ? request.getTargetUrl().trim()
+            : "http://localhost:" + mockPort;
+        if (!targetUrl.matches("(?i)https?://[^/?#]+(/[^?#]*)?")) {
+            throw new IllegalArgumentException("targetUrl must be an http or https base URL");
+        }
+        double timeCompression = request.getTimeCompression() != null ? request.getTimeCompression() : 1.0;
+        if (!(timeCompression > 0)) {
+            throw new IllegalArgumentException("timeCompression must be positive");
+        }
+        if (request.getRatePerSecond() != null && !(request.getRatePerSecond() > 0)) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        int concurrency = request.getConcurrency() != null ? request.getConcurrency() : defaultConcurrency;
+        int repeat = request.getRepeat() != null ? request.getRepeat() : 1;
+        int timeoutMs = request.getTimeoutMs() != null ? request.getTimeoutMs() : defaultTimeoutMs;
+        if (concurrency < 1 || repeat < 1 || timeoutMs < 1) {
+            throw new IllegalArgumentException("concurrency, repeat and timeoutMs must be at least 1");
+        }
+        if (concurrency > maxConcurrency) {
+            // Without virtual threads every slot is a platform thread, for each active run
+            log.warn("Replay concurrency {} is above the maximum; using {}", concurrency, maxConcurrency);
+            concurrency = maxConcurrency;
+        }
+
+        ReplayRun run;
+        synchronized (runs) {
+            long active = runs.values().stream().filter(r -> r.getStatus() == ReplayRun.Status.RUNNING).count();
+            if (active >= maxActiveRuns) {
+                throw new IllegalStateException("Already running " + active + " replays; wait for one to finish or cancel it");
+            }
+            run = new ReplayRun(new ObjectId().toHexString(), source, targetUrl, requests, timeCompression,
+                request.getRatePerSecond(), concurrency, repeat, Duration.ofMillis(timeoutMs), virtualThreads);
+            runs.put(run.getId(), run);
+            pruneHistory();
+        }
+        run.start();
+        log.info("Replay {} started: {} {} requests x{} to {}", run.getId(), requests.size(), source, repeat, targetUrl);
+        return run.report();
+    }
+
+    private void pruneHistory() {
+        long finished = runs.values().stream().filter(r -> r.getStatus() != ReplayRun.Status.RUNNING).count();
+        var iterator = runs.values().iterator();
+        while (finished > history && iterator.hasNext()) {
+            if (iterator.next().getStatus() != ReplayRun.Status.RUNNING) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+
+    private ReplayRun run(String id) {
+        ReplayRun run = runs.get(id);
+        if (run == null) {
+            throw new RuntimeException("Replay not found with ID: " + id);
+        }
+        return run;
+    }
+
+    /** The newest matching journal entries, oldest first. */
+    private List<ReplayRequest> fromJournal(RequestQuery query) {
+        List<JournalEntry> entries = new ArrayList<>();
+        RequestQuery page = new RequestQuery();
+        page.setUrl(query.getUrl());
+        page.setMethod(query.getMethod());
+        page.setStatus(query.getStatus());
+        page.setStatusClass(query.getStatusClass());
+        page.setMatched(query.getMatched());
+        page.setStubId(query.getStubId());
+        page.setFrom(query.getFrom());
+        page.setTo(query.getTo());
+        page.setBefore(query.getBefore());
+        while (entries.size() < maxRequests) {
+            RequestPage<JournalEntry> result = journalStore.query(page, Math.min(JOURNAL_PAGE, maxRequests - entries.size()));
+            entries.addAll(result.getItems());
+            if (result.getNextCursor() == null) {
+                break;
+            }
+            page.setBefore(result.getNextCursor());
+        }
+        if (entries.size() >= maxRequests) {
+            log.warn("Replaying only the newest {} journal entries", maxRequests);
+        }
+        Collections.reverse(entries);
+
+        List<ReplayRequest> requests = new ArrayList<>(entries.size());
+        Instant first = entries.isEmpty() ? null : entries.get(0).getTimestamp();
+        for (JournalEntry entry : entries) {
+            JournalEntry.Request request = entry.getRequest();
+            long offset = first != null && entry.getTimestamp() != null
+                ? Math.max(0, entry.getTimestamp().toEpochMilli() - first.toEpochMilli())
+                : 0;
+            requests.add(new ReplayRequest(offset, request.getMethod(), request.getUrl(), request.getHeaders(),
+                request.getBody() != null ? request.getBody().getBytes(StandardCharsets.UTF_8) : null));
+        }
+        return requests;
+    }
+
+    /**
+     * The requests of a recording's stubs, spaced as first recorded and carrying the
+     * session's header filters. Stubs recorded before timings were kept have none, so
+     * those need a fixed rate.
+     */
+    private List<ReplayRequest> fromRecording(String recordingId, boolean fixedRate) {
+        List<ReplayRequest> requests = new ArrayList<>();
+        List<Long> recordedAt = new ArrayList<>();
+        Map<String, List<String>> sessionHeaders = sessionHeaders(recordingId);
+        try (Stream<Stub> stubs = stubRepository.streamByRecordingId(recordingId)) {
+            for (Stub stub : (Iterable<Stub>) stubs::iterator) {
+                if (requests.size() >= maxRequests) {
+                    log.warn("Replaying only the first {} stubs of recording {}", maxRequests, recordingId);
+                    break;
+                }
+                JsonNode request = objectMapper.readTree(stub.getRequest());
+                JsonNode body = request.path("body");
+                byte[] bytes = body.isMissingNode() || body.isNull() ? null
+                    : (body.isTextual() ? body.asText() : body.toString()).getBytes(StandardCharsets.UTF_8);
+                JsonNode metadata = stub.getMetadata() != null
+                    ? objectMapper.readTree(stub.getMetadata())
+                    : objectMapper.missingNode();
+                recordedAt.add(metadata.path("recordedAt").asLong(-1));
+                JsonNode filters = metadata.path(RecordingService.RECORDING_HEADERS);
+                requests.add(new ReplayRequest(0, request.path("method").asText("GET"),
+                    request.path("url").asText("/"), filters.isObject() ? headersOf(filters) : sessionHeaders, bytes));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the stubs of recording " + recordingId, e);
+        }
+        if (recordedAt.stream().anyMatch(at -> at < 0)) {
+            if (!fixedRate) {
+                throw new IllegalArgumentException("Recording " + recordingId + " has stubs without timings; set ratePerSecond");
+            }
+            return requests;
+        }
+        long first = recordedAt.stream().mapToLong(Long::longValue).min().orElse(0);
+        List<ReplayRequest> timed = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ReplayRequest request = requests.get(i);
+            timed.add(new ReplayRequest(recordedAt.get(i) - first, request.method(), request.url(),
+                request.headers(), request.body()));
+        }
+        timed.sort(Comparator.comparingLong(ReplayRequest::offsetMillis));
+        return timed;
+    }
+
+    /** Header filters of a recording session still known, for stubs recorded before they were kept. */
+    private Map<String, List<String>> sessionHeaders(String recordingId) {
+        return recordingService.getSessions().stream()
+            .filter(session -> recordingId.equals(session.getId()) && session.getHeaders() != null)
+            .findFirst()
+            .map(session -> {
+                Map<String, List<String>> headers = new LinkedHashMap<>();
+                session.getHeaders().forEach((name, value) -> headers.put(name, List.of(value)));
+                return headers;
+            })
+            .orElse(Map.of());
+    }
+
+    private List<ReplayRequest> fromNdjson(InputStream content) {
+        List<ReplayRequest> requests = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (requests.size() >= maxRequests) {
+                    log.warn("Replaying only the first {} uploaded requests", maxRequests);
+                    break;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    // A journal entry wraps the request and keeps the time beside it
+                    JsonNode request = node.path("request").isObject() ? node.get("request") : node;
+                    String url = request.path("url").asText(null);
+                    if (url == null || !url.startsWith("/")) {
+                        throw new IllegalArgumentException("url must be a path starting with /");
+                    }
+                    times.add(node.has("offsetMillis")
+                        ? Long.valueOf(node.get("offsetMillis").asLong())
+                        : epochMillis(node.get("timestamp")));
+                    requests.add(new ReplayRequest(0, request.path("method").asText("GET"), url,
+                        headersOf(request.path("headers")), bodyOf(request.path("body"))));
+                } catch (IOException | IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not a request: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the uploaded traffic", e);
+        }
+        long first = times.stream().filter(time -> time != null).mapToLong(Long::longValue).min().orElse(0);
+        List<ReplayRequest> timed = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ReplayRequest request = requests.get(i);
+            long offset = times.get(i) != null ? times.get(i) - first : 0;
+            timed.add(new ReplayRequest(offset, request.method(), request.url(), request.headers(), request.body()));
+        }
+        timed.sort(Comparator.comparingLong(ReplayRequest::offsetMillis));
+        return timed;
+    }
+
+    /** Epoch milliseconds or an ISO-8601 instant; null when absent. */
+    private static Long epochMillis(JsonNode timestamp) {
+        if (timestamp == null || timestamp.isNull()) {
+            return null;
+        }
+        if (timestamp.isNumber()) {
+            return timestamp.asLong();
+        }
+        try {
+            return Instant.parse(timestamp.asText()).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Unreadable timestamp " + timestamp.asText());
+        }
+    }
+
+    private static Map<String, List<String>> headersOf(JsonNode headers) {
+        if (!headers.isObject()) {
+            return Map.of();
+        }
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        headers.fields().forEachRemaining(header -> {
+            List<String> values = new ArrayList<>();
+            if (header.getValue().isArray()) {
+                header.getValue().forEach(value -> values.add(value.asText()));
+            } else {
+                values.add(header.getValue().asText());
+            }
+            result.put(header.getKey(), values);
+        });
+        return result;
+    }
+
+    private static byte[] bodyOf(JsonNode body) {
+        if (body.isMissingNode() || body.isNull()) {
+            return null;
+        }
+        return (body.isTextual() ? body.asText() : body.toString()).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package com.wiremock.ui.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.wiremock.ui.dto.RequestPage;
+import com.wiremock.ui.dto.RequestQuery;
+import com.wiremock.ui.extension.RequestStatsListener;
+import com.wiremock.ui.journal.RequestJournalStore;
+import com.wiremock.ui.journal.RequestStreamBroadcaster;
+import com.wiremock.ui.model.JournalEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Service
+@RequiredArgsConstructor
+public class RequestJournalService {
+    private final RequestJournalStore journalStore;
+    private final RequestStreamBroadcaster streamBroadcaster;
+    private final RequestStatsListener requestStats;
+    private final WireMockServer wireMockServer;
+
+    @Value("${wiremock.api.page.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${wiremock.api.page.max-limit:1000}")
+    private int maxLimit;
+
+    public RequestPage<JournalEntry> findRequests(RequestQuery query) {
+        int limit = query.getLimit() == null ? defaultLimit : Math.max(1, Math.min(query.getLimit(), maxLimit));
+        return journalStore.query(query, limit);
+    }
+
+    public JournalEntry getRequest(String id) {
+        return journalStore.get(id)
+            .orElseThrow(() -> new RuntimeException("Request not found with ID: " + id));
+    }
+
+    public SseEmitter streamRequests(RequestQuery filter, String overflow) {
+        return streamBroadcaster.subscribe(filter, overflow);
+    }
+
+    public void clearRequests() {
+        wireMockServer.resetRequests();
+        journalStore.clear();
+        requestStats.reset();
+    }
+}
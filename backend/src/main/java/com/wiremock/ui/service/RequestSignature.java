@@ -0,0 +1,75 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Hash identifying requests that should be answered by the same stub: method, path,
+ * query parameters in sorted order, and the body with JSON keys sorted and insignificant
+ * whitespace removed. Requests differing only in parameter order or JSON formatting
+ * get the same signature.
+ */
+final class RequestSignature {
+    // Sorts keys of nested objects too, since they are converted to maps
+    private static final ObjectMapper CANONICAL = new ObjectMapper()
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private RequestSignature() {
+    }
+
+    /** Signature of a request in the stub API shape: {@code method}, {@code url} and optional {@code body}. */
+    static String of(JsonNode request) {
+        String method = request.path("method").asText("ANY").toUpperCase(Locale.ROOT);
+        String url = request.path("url").asText("/");
+        int queryStart = url.indexOf('?');
+        String path = queryStart < 0 ? url : url.substring(0, queryStart);
+        String query = "";
+        if (queryStart >= 0) {
+            String[] parameters = url.substring(queryStart + 1).split("&");
+            Arrays.sort(parameters);
+            query = String.join("&", parameters);
+        }
+        return hash(method + "\n" + path + "\n" + query + "\n" + canonicalBody(request.get("body")));
+    }
+
+    private static String canonicalBody(JsonNode body) {
+        if (body == null || body.isNull()) {
+            return "";
+        }
+        if (body.isTextual()) {
+            String text = body.asText().trim();
+            try {
+                // JSON recorded as text still compares by content
+                JsonNode parsed = CANONICAL.readTree(text);
+                if (parsed != null && parsed.isContainerNode()) {
+                    return canonicalBody(parsed);
+                }
+            } catch (Exception e) {
+                // Not JSON
+            }
+            return text;
+        }
+        try {
+            return CANONICAL.writeValueAsString(CANONICAL.treeToValue(body, Object.class));
+        } catch (Exception e) {
+            return body.toString();
+        }
+    }
+
+    private static String hash(String canonical) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,10 +2,14 @@ package com.wiremock.ui.service;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
 import com.wiremock.ui.model.SoapStub;
 import com.wiremock.ui.repository.SoapStubRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,9 +22,12 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.StringReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@Timed(value = "wiremock.ui.service", extraTags = {"service", "soap"})
 @RequiredArgsConstructor
 public class SoapStubService {
     private final SoapStubRepository soapStubRepository;
@@ -41,6 +48,11 @@ public class SoapStubService {
         return soapStubRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public StubPage<SoapStub> findStubs(StubQuery query) {
+        return soapStubRepository.find(query);
+    }
+
     @Transactional(readOnly = true)
     public SoapStub getStubById(String id) {
         return soapStubRepository.findById(id)
@@ -117,26 +129,56 @@ public class SoapStubService {
         }
     }
 
+    /**
+     * Builds the WireMock mapping for a SOAP stub without registering it.
+     */
+    public StubMapping toStubMapping(SoapStub stub) {
+        String xpathMatchers = stub.getXpathMatchers();
+        String responseXml = stub.getResponse();
+        
+        return WireMock.post(WireMock.urlPathEqualTo("/soap"))
+            .withId(mappingIdFor(stub))
+            .withHeader("Content-Type", WireMock.containing("text/xml"))
+            .withHeader("SOAPAction", WireMock.equalTo(stub.getSoapAction()))
+            .withRequestBody(WireMock.matchingXPath(xpathMatchers))
+            .willReturn(WireMock.aResponse()
+                .withHeader("Content-Type", "text/xml")
+                .withBody(responseXml))
+            .build();
+    }
+
+    public UUID mappingIdFor(SoapStub stub) {
+        return mappingIdFor(stub.getId());
+    }
+
+    /** Registers a stub changed elsewhere (e.g. by another node) with the local WireMock. */
+    public void registerMapping(SoapStub stub) {
+        updateWireMockStub(stub);
+    }
+
+    /** Removes the mapping of a stub deleted elsewhere. */
+    public void removeMapping(String stubId) {
+        wireMockServer.removeStubMapping(mappingIdFor(stubId));
+    }
+
+    private static UUID mappingIdFor(String stubId) {
+        return UUID.nameUUIDFromBytes(("soap_stubs/" + stubId).getBytes(StandardCharsets.UTF_8));
+    }
+
     private void updateWireMockStub(SoapStub stub) {
         try {
-            String xpathMatchers = stub.getXpathMatchers();
-            String responseXml = stub.getResponse();
-            
-            wireMockServer.stubFor(WireMock.post(WireMock.urlPathEqualTo("/soap"))
-                .withHeader("Content-Type", WireMock.containing("text/xml"))
-                .withHeader("SOAPAction", WireMock.equalTo(stub.getSoapAction()))
-                .withRequestBody(WireMock.matchingXPath(xpathMatchers))
-                .willReturn(WireMock.aResponse()
-                    .withHeader("Content-Type", "text/xml")
-                    .withBody(responseXml)));
+            StubMapping mapping = toStubMapping(stub);
+            if (wireMockServer.getStubMapping(mapping.getId()).isPresent()) {
+                wireMockServer.editStubMapping(mapping);
+            } else {
+                wireMockServer.addStubMapping(mapping);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to update WireMock SOAP stub", e);
         }
     }
 
     private void removeWireMockStub(SoapStub stub) {
-        wireMockServer.removeStubMapping(WireMock.post("/soap")
-            .withHeader("SOAPAction", WireMock.equalTo(stub.getSoapAction()))
-            .build());
+        wireMockServer.removeStubMapping(mappingIdFor(stub));
     }
 }
\ No newline at end of file
@@ -0,0 +1,304 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubImportBuilder;
+import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.repository.StubRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams stubs in and out of the system in bulk. Imports are parsed one element at
+ * a time and written to the stub store and WireMock in fixed-size chunks, so memory use
+ * does not depend on the size of the payload.
+ */
+@Slf4j
+@Service
+public class StubBulkService {
+
+    public enum Format {
+        /** One stub per line, in the same shape the stub API uses. */
+        NDJSON,
+        /** A WireMock mappings document: {@code {"mappings": [...]}} or a bare array. */
+        JSON
+    }
+
+    /** Failed elements listed in the import result; the count covers all of them. */
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    private final StubRepository stubRepository;
+    private final WireMockServer wireMockServer;
+    private final StubService stubService;
+    private final CompiledStubCache compiledStubCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${wiremock.bulk.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    public StubBulkService(StubRepository stubRepository, WireMockServer wireMockServer,
+                           StubService stubService, CompiledStubCache compiledStubCache,
+                           ObjectMapper objectMapper) {
+        this.stubRepository = stubRepository;
+        this.wireMockServer = wireMockServer;
+        this.stubService = stubService;
+        this.compiledStubCache = compiledStubCache;
+        this.objectMapper = objectMapper;
+    }
+
+    public Map<String, Object> importStubs(InputStream in, Format format, Integer chunkSize) throws IOException {
+        int size = chunkSize != null && chunkSize > 0 ? chunkSize : defaultChunkSize;
+        long startedAt = System.nanoTime();
+        int imported = 0;
+        int failed = 0;
+        int chunks = 0;
+        List<Map<String, Object>> failures = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            // NDJSON runs until end of input, a mappings array until its closing bracket
+            JsonToken end = null;
+            if (format == Format.JSON) {
+                positionAtMappingsArray(parser);
+                end = JsonToken.END_ARRAY;
+            }
+
+            List<Stub> chunk = new ArrayList<>(size);
+            JsonToken token;
+            int index = 0;
+            while ((token = parser.nextToken()) != null && token != end) {
+                JsonNode element = objectMapper.readTree(parser);
+                try {
+                    Stub stub = toStub(element);
+                    // Only stubs WireMock accepts are stored, so the store and the server agree
+                    stubService.validateMapping(stub);
+                    chunk.add(stub);
+                } catch (Exception e) {
+                    failed++;
+                    String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                    log.warn("Skipping stub {} that could not be read during bulk import: {}", index, message);
+                    if (failures.size() < MAX_REPORTED_FAILURES) {
+                        Map<String, Object> failure = new LinkedHashMap<>();
+                        failure.put("index", index);
+                        failure.put("name", element.path("name").asText(null));
+                        failure.put("error", String.valueOf(message));
+                        failures.add(failure);
+                    }
+                }
+                index++;
+                if (chunk.size() >= size) {
+                    imported += writeChunk(chunk);
+                    chunks++;
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                imported += writeChunk(chunk);
+                chunks++;
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Bulk imported {} stubs in {} chunks in {} ms ({} failed)", imported, chunks, elapsedMillis, failed);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("imported", imported);
+        result.put("failed", failed);
+        result.put("chunks", chunks);
+        result.put("failures", failures);
+        result.put("elapsedMs", elapsedMillis);
+        return result;
+    }
+
+    public void exportStubs(OutputStream out, Format format) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+             Stream<Stub> stubs = stubRepository.streamAll()) {
+            if (format == Format.NDJSON) {
+                generator.setRootValueSeparator(null);
+                stubs.forEach(stub -> writeNdjsonLine(generator, stub));
+            } else {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("mappings");
+                stubs.forEach(stub -> writeMapping(generator, stub));
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private int writeChunk(List<Stub> chunk) {
+        for (Stub stub : chunk) {
+            if (stub.getId() != null) {
+                // Re-importing an export replaces the stubs it came from
+                compiledStubCache.invalidate(stub.getId());
+            }
+        }
+        // Assigns ids to new stubs, so the WireMock mappings can be derived without reading them back
+        int written = stubRepository.saveAll(chunk);
+
+        StubImportBuilder batch = StubImport.stubImport().overwriteExisting().doNotDeleteExistingStubs();
+        for (Stub stub : chunk) {
+            if (stub.isEnabled()) {
+                batch.stub(stubService.toStubMapping(stub));
+            } else {
+                // Re-imported as disabled: an older enabled copy must stop being served
+                stubService.registerMapping(stub);
+            }
+        }
+        wireMockServer.importStubs(batch.build());
+        return written;
+    }
+
+    /**
+     * Accepts both the stub API shape and WireMock's own mapping format. WireMock's
+     * {@code jsonBody} is folded into {@code body} and a mapping id is kept as the
+     * stub's {@code wireMockId}.
+     */
+    private Stub toStub(JsonNode element) throws IOException {
+        if (!element.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object but got " + element.getNodeType());
+        }
+
+        Stub stub = new Stub();
+        stub.setName(element.path("name").asText(null));
+
+        JsonNode request = element.path("request");
+        stub.setRequest(request.isMissingNode() ? "{}" : objectMapper.writeValueAsString(request));
+
+        JsonNode response = element.path("response");
+        if (response.isObject() && response.has("jsonBody") && !response.has("body")) {
+            ObjectNode normalized = ((ObjectNode) response).deepCopy();
+            normalized.set("body", normalized.remove("jsonBody"));
+            response = normalized;
+        }
+        stub.setResponse(response.isMissingNode() ? "{}" : objectMapper.writeValueAsString(response));
+
+        if (element.hasNonNull("priority")) {
+            stub.setPriority(element.get("priority").asInt());
+        }
+        stub.setScenarioName(element.path("scenarioName").asText(null));
+        stub.setRequiredScenarioState(element.path("requiredScenarioState").asText(null));
+        stub.setNewScenarioState(element.path("newScenarioState").asText(null));
+        stub.setPersistent(element.path("persistent").asBoolean(false));
+        stub.setEnabled(element.path("enabled").asBoolean(true));
+
+        // Our own exports carry the Mongo document id; WireMock mappings carry a UUID
+        String id = element.path("id").asText(null);
+        String mappingId = element.path("uuid").asText(null);
+        if (id != null && ObjectId.isValid(id)) {
+            stub.setId(id);
+        } else if (mappingId == null) {
+            mappingId = id;
+        }
+
+        ObjectNode metadata = element.path("metadata").isObject()
+            ? ((ObjectNode) element.get("metadata")).deepCopy()
+            : objectMapper.createObjectNode();
+        if (mappingId != null && !metadata.has("wireMockId")) {
+            metadata.put("wireMockId", mappingId);
+        }
+        stub.setMetadata(objectMapper.writeValueAsString(metadata));
+        return stub;
+    }
+
+    private void positionAtMappingsArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if ("mappings".equals(field)) {
+                    break;
+                }
+                parser.skipChildren();
+                token = null;
+            }
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected a JSON array of mappings or an object with a 'mappings' array");
+        }
+    }
+
+    private void writeNdjsonLine(JsonGenerator generator, Stub stub) {
+        try {
+            String request = storedJson(stub.getRequest());
+            String response = storedJson(stub.getResponse());
+            String metadata = storedJson(stub.getMetadata());
+            if (!isValidJson(request) || !isValidJson(response) || !isValidJson(metadata)) {
+                // Copied through verbatim, so a broken value would corrupt the whole export
+                log.warn("Skipping stub {} during export: stored JSON is not valid", stub.getId());
+                return;
+            }
+            generator.writeStartObject();
+            generator.writeStringField("id", stub.getId());
+            generator.writeStringField("name", stub.getName());
+            generator.writeFieldName("request");
+            generator.writeRawValue(request);
+            generator.writeFieldName("response");
+            generator.writeRawValue(response);
+            if (stub.getPriority() != null) {
+                generator.writeNumberField("priority", stub.getPriority());
+            }
+            generator.writeStringField("scenarioName", stub.getScenarioName());
+            generator.writeStringField("requiredScenarioState", stub.getRequiredScenarioState());
+            generator.writeStringField("newScenarioState", stub.getNewScenarioState());
+            generator.writeBooleanField("persistent", stub.isPersistent());
+            generator.writeBooleanField("enabled", stub.isEnabled());
+            generator.writeFieldName("metadata");
+            generator.writeRawValue(metadata);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write stub " + stub.getId(), e);
+        }
+    }
+
+    private void writeMapping(JsonGenerator generator, Stub stub) {
+        try {
+            generator.writeRawValue(Json.write(stubService.toStubMapping(stub)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write stub " + stub.getId(), e);
+        } catch (RuntimeException e) {
+            log.warn("Skipping stub {} during export: {}", stub.getId(), e.getMessage());
+        }
+    }
+
+    private static String storedJson(String json) {
+        return json == null || json.isBlank() ? "{}" : json;
+    }
+
+    /**
+     * Stored request/response/metadata strings are copied through verbatim instead of
+     * being parsed into trees and re-serialized, so they are only tokenized to check
+     * they hold exactly one well-formed JSON value.
+     */
+    private boolean isValidJson(String json) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.wiremock.ui.service;
+
+import com.wiremock.ui.extension.StubHitListener;
+import com.wiremock.ui.extension.StubHitListener.StubHits;
+import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.repository.StubRepository.HitCount;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flushes per-stub hit counters to the stub store in batches, so usage is persisted
+ * without a database write per served request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StubHitService {
+    private final StubHitListener stubHits;
+    private final StubRepository stubRepository;
+
+    @Value("${wiremock.stub-hits.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${wiremock.stub-hits.flush-interval-ms:10000}",
+        initialDelayString = "${wiremock.stub-hits.flush-interval-ms:10000}")
+    public void flush() {
+        List<Pending> batch = new ArrayList<>();
+        for (StubHits hits : stubHits.getHits().values()) {
+            if (hits.getStubId() == null || !hits.hasUnflushedHit()) {
+                continue;
+            }
+            batch.add(new Pending(hits, hits.drain(), hits.getLastHitMillis()));
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /** Hits counted for a stub that have not been flushed yet. */
+    public long pendingHits(UUID mappingId) {
+        StubHits hits = stubHits.get(mappingId);
+        return hits != null ? hits.getPending() : 0;
+    }
+
+    /** The stub's last hit, taking unflushed hits into account. */
+    public Instant lastHitAt(UUID mappingId, Instant stored) {
+        StubHits hits = stubHits.get(mappingId);
+        if (hits == null || hits.getLastHitMillis() == 0) {
+            return stored;
+        }
+        Instant live = Instant.ofEpochMilli(hits.getLastHitMillis());
+        return stored == null || live.isAfter(stored) ? live : stored;
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            stubRepository.recordHits(batch.stream()
+                .map(pending -> new HitCount(pending.hits.getStubId(), pending.count,
+                    Instant.ofEpochMilli(pending.lastHitMillis)))
+                .toList());
+        } catch (RuntimeException e) {
+            // Keep the counts for the next attempt
+            batch.forEach(pending -> pending.hits.restore(pending.count));
+            log.warn("Failed to flush hit counts for {} stubs: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private record Pending(StubHits hits, long count, long lastHitMillis) {
+    }
+}
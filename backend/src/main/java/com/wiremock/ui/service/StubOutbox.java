@@ -0,0 +1,221 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.ui.model.Stub;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of stub mutations that have not reached MongoDB yet. Records are JSON
+ * lines in segment files named after their first sequence number; a segment is deleted
+ * once all of its records are committed. Callers waiting for durability share fsyncs:
+ * whoever syncs first covers every record appended before it.
+ */
+@Slf4j
+class StubOutbox implements AutoCloseable {
+    private static final String PREFIX = "outbox-";
+    private static final String SUFFIX = ".log";
+
+    /** One mutation: the full stub after a save, or just the id for a delete. */
+    record Entry(long seq, String id, Stub stub) {
+        @JsonIgnore
+        boolean isDelete() {
+            return stub == null;
+        }
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    // Closed segments, oldest first, with the last sequence number each holds
+    private final List<Segment> closed = new ArrayList<>();
+    private Segment active;
+    private long lastSeq;
+    private volatile long syncedSeq;
+
+    StubOutbox(Path dir, long segmentBytes, ObjectMapper objectMapper) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Opens the outbox and returns the records left over from a previous run, in order.
+     * A torn last line from a crash mid-write is skipped.
+     */
+    List<Entry> open() throws IOException {
+        Files.createDirectories(dir);
+        List<Entry> recovered = new ArrayList<>();
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(StubOutbox::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            long segmentLast = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        Entry entry = objectMapper.readValue(line, Entry.class);
+                        recovered.add(entry);
+                        segmentLast = Math.max(segmentLast, entry.seq());
+                    } catch (IOException e) {
+                        log.warn("Skipping unreadable outbox record in {}", file.getFileName());
+                    }
+                }
+            }
+            if (segmentLast == 0) {
+                deleteQuietly(file);
+                continue;
+            }
+            closed.add(new Segment(file, null, segmentLast));
+            lastSeq = Math.max(lastSeq, segmentLast);
+        }
+        recovered.sort(Comparator.comparingLong(Entry::seq));
+        syncedSeq = lastSeq;
+        active = newSegment(lastSeq + 1);
+        return recovered;
+    }
+
+    /** Writes a record and returns its sequence number. The record may not be on disk yet. */
+    long append(String id, Stub stub) {
+        synchronized (appendLock) {
+            long seq = lastSeq + 1;
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(new Entry(seq, id, stub));
+                ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+                while (buffer.hasRemaining()) {
+                    active.channel.write(buffer);
+                }
+                lastSeq = seq;
+                active.lastSeq = seq;
+                if (active.channel.position() >= segmentBytes) {
+                    roll();
+                }
+                return seq;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write stub outbox record", e);
+            }
+        }
+    }
+
+    /** Blocks until the record with this sequence number has been forced to disk. */
+    void sync(long seq) {
+        if (syncedSeq >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                // Forced by another caller while this one waited
+                return;
+            }
+            long upTo;
+            FileChannel channel;
+            synchronized (appendLock) {
+                upTo = lastSeq;
+                channel = active.channel;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rolled meanwhile; segments are forced before they are closed
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync stub outbox", e);
+            }
+            syncedSeq = upTo;
+        }
+    }
+
+    /** Drops segments whose records are all committed to MongoDB. */
+    void committed(long seq) {
+        synchronized (appendLock) {
+            while (!closed.isEmpty() && closed.get(0).lastSeq <= seq) {
+                deleteQuietly(closed.remove(0).path);
+            }
+            if (seq >= lastSeq && active.lastSeq > 0) {
+                try {
+                    // Everything is committed, so the active segment can start over
+                    active.channel.truncate(0);
+                    active.lastSeq = 0;
+                } catch (IOException e) {
+                    log.warn("Failed to truncate stub outbox segment: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            if (active != null) {
+                try {
+                    active.channel.force(false);
+                    active.channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close stub outbox: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        active.channel.force(false);
+        active.channel.close();
+        closed.add(new Segment(active.path, null, active.lastSeq));
+        active = newSegment(lastSeq + 1);
+    }
+
+    private Segment newSegment(long firstSeq) throws IOException {
+        Path path = dir.resolve(PREFIX + String.format("%020d", firstSeq) + SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        return new Segment(path, channel, 0);
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete stub outbox segment {}: {}", path.getFileName(), e.getMessage());
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        // Zero while the segment holds no records
+        private long lastSeq;
+
+        private Segment(Path path, FileChannel channel, long lastSeq) {
+            this.path = path;
+            this.channel = channel;
+            this.lastSeq = lastSeq;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.wiremock.ui.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubImportBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.extension.MappingChangeTracker;
+import com.wiremock.ui.extension.RecordingCaptureListener;
+import com.wiremock.ui.extension.StubHitListener;
+import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.repository.GraphQLStubRepository;
+import com.wiremock.ui.repository.SoapStubRepository;
+import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.repository.StubStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Re-registers the persisted stubs with the WireMock server at startup.
+ * Stubs are streamed from each store, converted to
+ * {@link StubMapping}s on a worker pool and imported into WireMock in bulk.
+ */
+@Slf4j
+@Service
+public class StubRehydrationService {
+    private final StubRepository stubRepository;
+    private final GraphQLStubRepository graphQLStubRepository;
+    private final SoapStubRepository soapStubRepository;
+    private final WireMockServer wireMockServer;
+    private final StubService stubService;
+    private final GraphQLStubService graphQLStubService;
+    private final SoapStubService soapStubService;
+    private final CompiledStubCache compiledStubCache;
+    private final MappingChangeTracker changeTracker;
+    private final StubWriteBehindService writeBehind;
+
+    @Value("${wiremock.server.startup.serve-while-loading:false}")
+    private boolean serveWhileLoading;
+
+    @Value("${wiremock.server.startup.loader-threads:0}")
+    private int loaderThreads;
+
+    @Value("${wiremock.server.startup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${wiremock.server.startup.progress-interval:5000}")
+    private int progressInterval;
+
+    public StubRehydrationService(StubRepository stubRepository,
+                                  GraphQLStubRepository graphQLStubRepository,
+                                  SoapStubRepository soapStubRepository,
+                                  WireMockServer wireMockServer,
+                                  StubService stubService,
+                                  GraphQLStubService graphQLStubService,
+                                  SoapStubService soapStubService,
+                                  CompiledStubCache compiledStubCache,
+                                  MappingChangeTracker changeTracker,
+                                  StubWriteBehindService writeBehind) {
+        this.stubRepository = stubRepository;
+        this.graphQLStubRepository = graphQLStubRepository;
+        this.soapStubRepository = soapStubRepository;
+        this.wireMockServer = wireMockServer;
+        this.stubService = stubService;
+        this.graphQLStubService = graphQLStubService;
+        this.soapStubService = soapStubService;
+        this.compiledStubCache = compiledStubCache;
+        this.changeTracker = changeTracker;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Loads every persisted stub into WireMock. Unless serving while loading is enabled,
+     * the mock port is only opened once all mappings have been registered.
+     */
+    public void rehydrate() {
+        if (serveWhileLoading) {
+            ensureStarted();
+            Thread loader = new Thread(() -> loadAll(false), "stub-rehydration");
+            loader.setDaemon(true);
+            loader.start();
+        } else {
+            try {
+                loadAll(false);
+            } finally {
+                ensureStarted();
+            }
+        }
+    }
+
+    /**
+     * Opens the mock port if it isn't open yet. Called on every startup path, including
+     * when MongoDB is unreachable, so the mock never stays closed.
+     */
+    public void ensureStarted() {
+        if (!wireMockServer.isRunning()) {
+            wireMockServer.start();
+            log.info("WireMock server listening on port {}", wireMockServer.port());
+        }
+    }
+
+    /**
+     * Brings WireMock's mappings in line with everything persisted, in one import, without
+     * a window in which stubs are missing. Only mappings of stubs no longer persisted are
+     * removed; changes made while reloading are kept. Used when a node can no longer catch
+     * up on changes incrementally.
+     */
+    public void reload() {
+        loadAll(true);
+    }
+
+    /**
+     * Reloads in the background while WireMock keeps serving what it has, such as the
+     * mappings restored from a snapshot, which MongoDB then corrects. {@code whenDone}
+     * runs on the loader thread afterwards.
+     */
+    public void reconcileInBackground(Runnable whenDone) {
+        Thread loader = new Thread(() -> {
+            reload();
+            whenDone.run();
+        }, "stub-reconcile");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void loadAll(boolean replace) {
+        long startedAt = System.nanoTime();
+        int threads = loaderThreads > 0 ? loaderThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stub-rehydration-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // A reload runs while WireMock keeps serving and taking changes, which it must not undo
+        try (MappingChangeTracker.Watch watch = replace ? changeTracker.watch() : null) {
+            long expected = stubRepository.estimatedCount()
+                + graphQLStubRepository.estimatedCount()
+                + soapStubRepository.estimatedCount();
+            log.info("Rehydrating ~{} stubs into WireMock using {} worker threads", expected, threads);
+
+            Progress progress = new Progress(expected);
+            List<Future<List<StubMapping>>> pending = new ArrayList<>();
+            // A full reload sees every stored stub, so it is when stubs deleted without a
+            // change event reaching this node are dropped from the compiled stub cache
+            Set<String> stored = replace ? ConcurrentHashMap.newKeySet() : null;
+            // Disabled HTTP stubs, such as recordings not being played back, stay unregistered
+            Predicate<Stub> served = replace
+                ? stub -> {
+                    stored.add(stub.getId());
+                    return stub.isEnabled();
+                }
+                : Stub::isEnabled;
+            submitAll(stubRepository, served, stubService::toStubMapping, pool, pending, progress);
+            submitAll(graphQLStubRepository, stub -> true, graphQLStubService::toStubMapping, pool, pending, progress);
+            submitAll(soapStubRepository, stub -> true, soapStubService::toStubMapping, pool, pending, progress);
+
+            // Collect the converted batches; register them as one import unless we're already serving
+            StubImportBuilder batch = replace
+                ? StubImport.stubImport().overwriteExisting().doNotDeleteExistingStubs()
+                : StubImport.stubImport().ignoreExisting().doNotDeleteExistingStubs();
+            boolean incremental = serveWhileLoading && !replace;
+            Set<UUID> persisted = new HashSet<>();
+            Set<UUID> written = new HashSet<>();
+            int registered = 0;
+            for (Future<List<StubMapping>> future : pending) {
+                List<StubMapping> mappings = future.get();
+                if (incremental) {
+                    register(mappings);
+                } else {
+                    for (StubMapping mapping : mappings) {
+                        if (replace) {
+                            persisted.add(mapping.getId());
+                            // What was stored before the change would overwrite it
+                            if (watch.changed(mapping) || isPending(mapping)) {
+                                continue;
+                            }
+                            written.add(mapping.getId());
+                        }
+                        batch.stub(mapping);
+                    }
+                }
+                registered += mappings.size();
+            }
+            if (!incremental && registered > 0) {
+                wireMockServer.importStubs(batch.build());
+            }
+            if (replace) {
+                removeUnpersisted(persisted, watch, written);
+                reapplyChanges(watch, written);
+                compiledStubCache.retainAll(stored);
+            }
+
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            log.info("Rehydrated {} stubs into WireMock in {} ms ({} failed)",
+                registered, elapsedMillis, progress.failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Stub rehydration interrupted");
+        } catch (ExecutionException e) {
+            log.error("Stub rehydration failed: {}", e.getCause().getMessage(), e.getCause());
+        } catch (Exception e) {
+            log.error("Stub rehydration failed: {}", e.getMessage(), e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Removes the mappings of stubs that are no longer persisted, leaving those changed
+     * while loading, those whose change is still in the write-behind outbox and the
+     * recording sessions' proxies, none of which the store knows about yet or at all.
+     */
+    private void removeUnpersisted(Set<UUID> persisted, MappingChangeTracker.Watch watch, Set<UUID> removed) {
+        if (watch.wasReset()) {
+            log.warn("WireMock's mappings were reset while reloading; not removing unpersisted mappings");
+            return;
+        }
+        int count = 0;
+        for (StubMapping mapping : wireMockServer.getStubMappings()) {
+            if (persisted.contains(mapping.getId()) || watch.changed(mapping) || isPending(mapping)
+                || RecordingCaptureListener.isSessionProxy(mapping)) {
+                continue;
+            }
+            removed.add(mapping.getId());
+            wireMockServer.removeStubMapping(mapping.getId());
+            count++;
+        }
+        if (count > 0) {
+            log.info("Removed {} mappings no longer persisted", count);
+        }
+    }
+
+    /**
+     * Applies again what other threads did to mappings this reload wrote after deciding to,
+     * so a change racing the import or a removal wins over the stored state it replaced.
+     */
+    private void reapplyChanges(MappingChangeTracker.Watch watch, Set<UUID> written) {
+        long applied = 0;
+        while (true) {
+            long since = applied;
+            List<MappingChangeTracker.Change> missed = watch.changes().stream()
+                .filter(change -> change.generation() > since && written.contains(change.id()))
+                .sorted(Comparator.comparingLong(MappingChangeTracker.Change::generation))
+                .toList();
+            if (missed.isEmpty()) {
+                return;
+            }
+            for (MappingChangeTracker.Change change : missed) {
+                boolean present = wireMockServer.getStubMapping(change.id()).isPresent();
+                if (change.mapping() == null) {
+                    if (present) {
+                        wireMockServer.removeStubMapping(change.id());
+                    }
+                } else if (present) {
+                    wireMockServer.editStubMapping(change.mapping());
+                } else {
+                    wireMockServer.addStubMapping(change.mapping());
+                }
+                applied = change.generation();
+            }
+        }
+    }
+
+    private boolean isPending(StubMapping mapping) {
+        Metadata metadata = mapping.getMetadata();
+        return metadata != null && metadata.containsKey(StubHitListener.STUB_ID_METADATA)
+            && writeBehind.isPending(metadata.getString(StubHitListener.STUB_ID_METADATA));
+    }
+
+    private <T> void submitAll(StubStore<T> store, Predicate<T> served, Function<T, StubMapping> converter,
+                               ExecutorService pool, List<Future<List<StubMapping>>> pending, Progress progress) {
+        try (Stream<T> documents = store.streamAll()) {
+            List<T> chunk = new ArrayList<>(batchSize);
+            documents.forEach(document -> {
+                if (!served.test(document)) {
+                    progress.increment();
+                    return;
+                }
+                chunk.add(document);
+                if (chunk.size() >= batchSize) {
+                    pending.add(pool.submit(() -> convert(new ArrayList<>(chunk), converter, progress)));
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                pending.add(pool.submit(() -> convert(chunk, converter, progress)));
+            }
+        }
+    }
+
+    private <T> List<StubMapping> convert(List<T> documents, Function<T, StubMapping> converter, Progress progress) {
+        List<StubMapping> mappings = new ArrayList<>(documents.size());
+        for (T document : documents) {
+            try {
+                mappings.add(converter.apply(document));
+            } catch (Exception e) {
+                progress.failed.incrementAndGet();
+                log.warn("Skipping stub that could not be converted: {}", e.getMessage());
+            }
+            progress.increment();
+        }
+        return mappings;
+    }
+
+    private void register(List<StubMapping> mappings) {
+        if (mappings.isEmpty()) {
+            return;
+        }
+        StubImportBuilder batch = StubImport.stubImport().ignoreExisting().doNotDeleteExistingStubs();
+        mappings.forEach(batch::stub);
+        wireMockServer.importStubs(batch.build());
+    }
+
+    private class Progress {
+        private final long expected;
+        private final AtomicLong converted = new AtomicLong();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        Progress(long expected) {
+            this.expected = expected;
+        }
+
+        void increment() {
+            long done = converted.incrementAndGet();
+            if (progressInterval > 0 && done % progressInterval == 0) {
+                log.info("Rehydration progress: {}/{} stubs converted", done, expected);
+            }
+        }
+    }
+}
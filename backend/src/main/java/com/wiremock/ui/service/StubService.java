@@ -5,26 +5,52 @@ import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
 import com.github.tomakehurst.wiremock.matching.*;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubImportBuilder;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.wiremock.ui.dto.StubPage;
+import com.wiremock.ui.dto.StubQuery;
+import com.wiremock.ui.extension.PercentileDelayDistribution;
+import com.wiremock.ui.extension.StubHitListener;
 import com.wiremock.ui.model.Stub;
 import com.wiremock.ui.repository.StubRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+@Slf4j
 @Service
+@Timed(value = "wiremock.ui.service", extraTags = {"service", "stub"})
 @RequiredArgsConstructor
 public class StubService {
     private final StubRepository stubRepository;
     private final WireMockServer wireMockServer;
     private final ObjectMapper objectMapper;
+    private final CompiledStubCache compiledStubCache;
+    private final StubWriteBehindService writeBehind;
 
     public Stub createStub(Stub stub) {
+        return createStub(stub, null);
+    }
+
+    /**
+     * Creates a stub. With write-behind enabled the mapping is live once this returns and
+     * the document is committed to MongoDB in the background; {@code ack} (null for the
+     * configured default) says whether the outbox must have reached the disk first.
+     */
+    public Stub createStub(Stub stub, StubWriteBehindService.Ack ack) {
         // Set defaults for null fields
         if (stub.getRequest() == null) {
             stub.setRequest("{}");
@@ -38,6 +64,15 @@ public class StubService {
             stub.setMetadata("{}");
         }
         
+        if (writeBehind.isEnabled()) {
+            if (stub.getId() == null) {
+                stub.setId(new ObjectId().toHexString());
+            }
+            updateWireMockMapping(stub);
+            writeBehind.save(stub, ack);
+            return stub;
+        }
+        
         Stub savedStub = stubRepository.save(stub);
         updateWireMockMapping(savedStub);
         return savedStub;
@@ -47,12 +82,28 @@ public class StubService {
         return stubRepository.findAll();
     }
 
+    public StubPage<Stub> findStubs(StubQuery query) {
+        return stubRepository.find(query);
+    }
+
     public Stub getStubById(String id) {
+        // Mutations not yet committed by the write-behind writer are newer than MongoDB
+        StubOutbox.Entry pending = writeBehind.pending(id);
+        if (pending != null) {
+            if (pending.isDelete()) {
+                throw new RuntimeException("Stub not found with ID: " + id);
+            }
+            return pending.stub();
+        }
         return stubRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Stub not found with ID: " + id));
     }
 
     public Stub updateStub(String id, Stub stub) {
+        return updateStub(id, stub, null);
+    }
+
+    public Stub updateStub(String id, Stub stub, StubWriteBehindService.Ack ack) {
         Stub existingStub = getStubById(id);
         
         existingStub.setName(stub.getName());
@@ -65,6 +116,7 @@ public class StubService {
         existingStub.setPersistent(stub.isPersistent());
         existingStub.setEnabled(stub.isEnabled());
         existingStub.setMetadata(stub.getMetadata());
+        existingStub.setVersion(existingStub.getVersion() + 1);
         
         if (stub.getRequest() == null) {
             existingStub.setRequest("{}");
@@ -78,24 +130,105 @@ public class StubService {
             existingStub.setMetadata("{}");
         }
         
+        if (writeBehind.isEnabled()) {
+            compiledStubCache.invalidate(id);
+            updateWireMockMapping(existingStub);
+            writeBehind.save(existingStub, ack);
+            return existingStub;
+        }
+        
         Stub updatedStub = stubRepository.save(existingStub);
+        compiledStubCache.invalidate(id);
         updateWireMockMapping(updatedStub);
         return updatedStub;
     }
 
     public void deleteStub(String id) {
+        deleteStub(id, null);
+    }
+
+    public void deleteStub(String id, StubWriteBehindService.Ack ack) {
         Stub stub = getStubById(id);
+        if (writeBehind.isEnabled()) {
+            removeWireMockMapping(stub);
+            compiledStubCache.invalidate(id);
+            writeBehind.delete(id, ack);
+            return;
+        }
         stubRepository.delete(stub);
         removeWireMockMapping(stub);
+        compiledStubCache.invalidate(id);
     }
 
-    private void updateWireMockMapping(Stub stub) {
+    /**
+     * Registers a stub changed elsewhere (e.g. by another node) with the local WireMock.
+     */
+    public void registerMapping(Stub stub) {
+        compiledStubCache.invalidate(stub.getId());
+        updateWireMockMapping(stub);
+    }
+
+    /**
+     * Removes the mapping of a stub deleted elsewhere. Only the id is known, so a mapping
+     * registered under a custom {@code wireMockId} is found by its stub id metadata.
+     */
+    public void removeMapping(String stubId) {
+        compiledStubCache.invalidate(stubId);
+        UUID derivedId = UUID.nameUUIDFromBytes(("stubs/" + stubId).getBytes(StandardCharsets.UTF_8));
+        if (wireMockServer.getStubMapping(derivedId).isPresent()) {
+            wireMockServer.removeStubMapping(derivedId);
+            return;
+        }
+        wireMockServer.removeStubsByMetadata(
+            WireMock.matchingJsonPath("$." + StubHitListener.STUB_ID_METADATA, WireMock.equalTo(stubId)));
+    }
+
+    /**
+     * Returns the parsed form of a stub, reusing the cached copy when the stub's
+     * request, response and other mapped fields haven't changed since it was last compiled.
+     */
+    public CompiledStub compile(Stub stub) {
+        return compiledStubCache.getOrCompile(stub, this::doCompile);
+    }
+
+    /**
+     * Compiles a stub without touching the cache. Used for partially loaded (projected)
+     * stubs, which must never be cached as if they were complete.
+     */
+    public CompiledStub compileDetached(Stub stub) {
+        return doCompile(stub);
+    }
+
+    /**
+     * Builds the WireMock mapping for a stub without registering it. The mapping id
+     * is stable for a given stub so that rehydration, updates and deletes all
+     * address the same mapping.
+     */
+    public StubMapping toStubMapping(Stub stub) {
+        CompiledStub compiled = compile(stub);
+        StubMapping mapping = compiled.copyOfMapping();
+        if (mapping == null) {
+            compiled.setMapping(buildStubMapping(stub, compiled));
+            mapping = compiled.copyOfMapping();
+        }
+        return mapping;
+    }
+
+    /**
+     * Builds the WireMock mapping for a stub without caching anything, failing the same
+     * way registration would. Used to reject stubs before they are stored.
+     */
+    public StubMapping validateMapping(Stub stub) {
+        return buildStubMapping(stub, doCompile(stub));
+    }
+
+    private StubMapping buildStubMapping(Stub stub, CompiledStub compiled) {
         try {
             // Create request matchers
-            MappingBuilder requestBuilder = createRequestBuilder(stub);
+            MappingBuilder requestBuilder = createRequestBuilder(compiled.getRequest());
             
             // Create response
-            ResponseDefinitionBuilder responseBuilder = createResponseBuilder(stub);
+            ResponseDefinitionBuilder responseBuilder = createResponseBuilder(compiled.getResponse());
             
             // Add scenario if specified
             if (stub.getScenarioName() != null && !stub.getScenarioName().isEmpty()) {
@@ -123,19 +256,91 @@ public class StubService {
                 requestBuilder.atPriority(stub.getPriority());
             }
             
+            requestBuilder.withId(mappingIdFor(stub, compiled.getMetadata()));
+            if (stub.getName() != null) {
+                requestBuilder.withName(stub.getName());
+            }
+            if (stub.getId() != null) {
+                // Lets served requests be attributed back to the stub document
+                requestBuilder.withMetadata(Map.of(StubHitListener.STUB_ID_METADATA, stub.getId()));
+            }
+            
             // Create the mapping
-            StubMapping mapping = requestBuilder.willReturn(responseBuilder).build();
+            return requestBuilder.willReturn(responseBuilder).build();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build WireMock mapping for stub " + stub.getId(), e);
+        }
+    }
+
+    /**
+     * Returns the WireMock mapping id for a stub: the {@code wireMockId} recorded in its
+     * metadata when present, otherwise an id derived from the stub's document id. Reads
+     * the metadata alone, bypassing the compiled stub cache, so it is safe on projected stubs.
+     */
+    public UUID mappingIdFor(Stub stub) {
+        String metadata = stub.getMetadata();
+        JsonNode metadataNode = metadata != null && metadata.contains("wireMockId")
+            ? parseJsonNode(metadata)
+            : objectMapper.createObjectNode();
+        return mappingIdFor(stub, metadataNode);
+    }
+
+    private UUID mappingIdFor(Stub stub, JsonNode metadataNode) {
+        if (metadataNode.hasNonNull("wireMockId")) {
+            try {
+                return UUID.fromString(metadataNode.get("wireMockId").asText());
+            } catch (IllegalArgumentException e) {
+                // Fall through to the derived id
+            }
+        }
+        return UUID.nameUUIDFromBytes(("stubs/" + stub.getId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Registers many stubs in one import, such as a recording switched on for playback.
+     * Disabled stubs are skipped.
+     */
+    public void registerMappings(List<Stub> stubs) {
+        StubImportBuilder batch = StubImport.stubImport().overwriteExisting().doNotDeleteExistingStubs();
+        boolean any = false;
+        for (Stub stub : stubs) {
+            if (stub.isEnabled()) {
+                batch.stub(toStubMapping(stub));
+                any = true;
+            }
+        }
+        if (any) {
+            wireMockServer.importStubs(batch.build());
+        }
+    }
+
+    /** Removes the mappings of stubs that are still stored, such as a recording switched off. */
+    public void unregisterMappings(List<Stub> stubs) {
+        stubs.forEach(this::removeRegisteredMapping);
+    }
+
+    private void updateWireMockMapping(Stub stub) {
+        if (!stub.isEnabled()) {
+            // Disabled stubs stay stored but are not served
+            removeRegisteredMapping(stub);
+            return;
+        }
+        try {
+            StubMapping mapping = toStubMapping(stub);
             
-            // Add the mapping to WireMock
-            wireMockServer.addStubMapping(mapping);
+            // Replace the existing mapping in place so updates don't leave stale copies behind
+            if (wireMockServer.getStubMapping(mapping.getId()).isPresent()) {
+                wireMockServer.editStubMapping(mapping);
+            } else {
+                wireMockServer.addStubMapping(mapping);
+            }
             
         } catch (Exception e) {
             throw new RuntimeException("Failed to update WireMock mapping", e);
         }
     }
 
-    private MappingBuilder createRequestBuilder(Stub stub) throws Exception {
-        JsonNode requestNode = parseJsonNode(stub.getRequest());
+    private MappingBuilder createRequestBuilder(JsonNode requestNode) throws Exception {
         String method = "GET";
         String url = "/";
         
@@ -214,8 +419,7 @@ public class StubService {
         }
     }
 
-    private ResponseDefinitionBuilder createResponseBuilder(Stub stub) throws Exception {
-        JsonNode responseNode = parseJsonNode(stub.getResponse());
+    private ResponseDefinitionBuilder createResponseBuilder(JsonNode responseNode) throws Exception {
         ResponseDefinitionBuilder builder = WireMock.aResponse();
         
         if (responseNode.has("status")) {
@@ -249,22 +453,65 @@ public class StubService {
                 }
             }
         }
+        if (responseNode.hasNonNull("base64Body") && !responseNode.has("body")) {
+            // Binary responses, as captured by recordings
+            builder.withBase64Body(responseNode.get("base64Body").asText());
+        }
+        // Large bodies live on disk (see BodyFileService) and are streamed by WireMock
+        if (responseNode.hasNonNull("bodyFileName") && !responseNode.has("body")) {
+            builder.withBodyFile(responseNode.get("bodyFileName").asText());
+        }
         
         // Add delay if specified
         if (responseNode.has("fixedDelayMilliseconds")) {
             builder.withFixedDelay(responseNode.get("fixedDelayMilliseconds").asInt());
         }
+        if (responseNode.hasNonNull("delayDistribution")) {
+            builder.withRandomDelay(createDelayDistribution(responseNode.get("delayDistribution")));
+        }
+        if (responseNode.hasNonNull("chunkedDribbleDelay")) {
+            JsonNode dribble = responseNode.get("chunkedDribbleDelay");
+            builder.withChunkedDribbleDelay(dribble.path("numberOfChunks").asInt(1), dribble.path("totalDuration").asInt());
+        }
         
         return builder;
     }
 
+    /**
+     * Delay profiles, in WireMock's own {@code delayDistribution} format plus a
+     * {@code percentile} table: {@code {"type": "percentile", "percentiles": {"50": 20, "99": 250}}}.
+     */
+    private DelayDistribution createDelayDistribution(JsonNode node) {
+        String type = node.path("type").asText();
+        switch (type) {
+            case "uniform":
+                return new UniformDistribution(node.path("lower").asInt(), node.path("upper").asInt());
+            case "lognormal":
+                return new LogNormal(node.path("median").asDouble(), node.path("sigma").asDouble());
+            case "percentile":
+                Map<String, Long> percentiles = new LinkedHashMap<>();
+                node.path("percentiles").fields().forEachRemaining(field ->
+                    percentiles.put(field.getKey(), field.getValue().asLong()));
+                return new PercentileDelayDistribution(percentiles,
+                    node.hasNonNull("min") ? node.get("min").asLong() : null);
+            default:
+                throw new IllegalArgumentException("Unknown delay distribution type '" + type
+                    + "', expected uniform, lognormal or percentile");
+        }
+    }
+
+    private void removeRegisteredMapping(Stub stub) {
+        UUID mappingId = mappingIdFor(stub);
+        if (wireMockServer.getStubMapping(mappingId).isPresent()) {
+            wireMockServer.removeStubMapping(mappingId);
+        }
+    }
+
     private void removeWireMockMapping(Stub stub) {
         try {
-            // First try to remove by metadata id if available
-            JsonNode metadataNode = parseJsonNode(stub.getMetadata());
-            if (metadataNode != null && metadataNode.has("wireMockId")) {
-                String wireMockId = metadataNode.get("wireMockId").asText();
-                wireMockServer.removeStubMapping(UUID.fromString(wireMockId));
+            UUID mappingId = mappingIdFor(stub);
+            if (wireMockServer.getStubMapping(mappingId).isPresent()) {
+                wireMockServer.removeStubMapping(mappingId);
                 return;
             }
             
@@ -280,6 +527,54 @@ public class StubService {
         }
     }
     
+    private CompiledStub doCompile(Stub stub) {
+        JsonNode request = parseJsonNode(stub.getRequest());
+        JsonNode response = parseJsonNode(stub.getResponse());
+        JsonNode metadata = parseJsonNode(stub.getMetadata());
+        
+        JsonNode responseView = processResponseNode(unwrapDoubleEncoded(response, "response", stub.getId()), stub.getId());
+        return new CompiledStub(request, response, metadata,
+            unwrapDoubleEncoded(request, "request", stub.getId()),
+            responseView,
+            unwrapDoubleEncoded(metadata, "metadata", stub.getId()));
+    }
+
+    /**
+     * Handles values that were stored double-encoded: if the first parse produced a
+     * TextNode, its content is parsed again. Returns the node unchanged otherwise.
+     */
+    private JsonNode unwrapDoubleEncoded(JsonNode node, String fieldName, String stubId) {
+        if (!node.isTextual()) {
+            return node;
+        }
+        try {
+            return objectMapper.readTree(node.textValue());
+        } catch (Exception e) {
+            log.warn("Could not parse inner JSON for stub {} field '{}' after first pass resulted in TextNode. Content: '{}'. Error: {}", 
+                     stubId, fieldName, node.textValue(), e.getMessage());
+            return node;
+        }
+    }
+
+    /**
+     * Replaces a response 'body' that is a string containing escaped JSON with the
+     * parsed JSON. Works on a copy so the node used to build the mapping is untouched.
+     */
+    private JsonNode processResponseNode(JsonNode responseNode, String stubId) {
+        if (responseNode != null && responseNode.isObject() && responseNode.has("body") && responseNode.get("body").isTextual()) {
+            String bodyText = responseNode.get("body").textValue();
+            try {
+                JsonNode innerBodyNode = objectMapper.readTree(bodyText);
+                ObjectNode copy = ((ObjectNode) responseNode).deepCopy();
+                copy.set("body", innerBodyNode);
+                return copy;
+            } catch (Exception e) {
+                log.debug("Response body for stub {} is not JSON, leaving it as text: {}", stubId, e.getMessage());
+            }
+        }
+        return responseNode;
+    }
+    
     private JsonNode parseJsonNode(String json) {
         try {
             if (json == null || json.isEmpty()) {
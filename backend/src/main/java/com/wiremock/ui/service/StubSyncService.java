@@ -0,0 +1,259 @@
+package com.wiremock.ui.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.wiremock.ui.model.GraphQLStub;
+import com.wiremock.ui.model.SoapStub;
+import com.wiremock.ui.model.Stub;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the local WireMock in step with stubs written by other nodes sharing the same
+ * MongoDB, enabled with {@code wiremock.sync.enabled}. One change stream over the stub
+ * collections is tailed and every insert, update and delete is applied incrementally.
+ * The stream's resume token is kept, so after a dropped connection the node continues
+ * where it left off; only if MongoDB no longer has that history are all stubs reloaded.
+ * Change streams need a replica set; a single-node replica set is enough.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "wiremock.storage.backend", havingValue = "mongo", matchIfMissing = true)
+public class StubSyncService {
+    private static final List<String> COLLECTIONS = List.of("stubs", "graphql_stubs", "soap_stubs");
+    // $changeStream on a standalone server
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final StubService stubService;
+    private final GraphQLStubService graphQLStubService;
+    private final SoapStubService soapStubService;
+    private final StubWriteBehindService writeBehind;
+    private final StubRehydrationService rehydrationService;
+
+    @Value("${wiremock.sync.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wiremock.sync.retry-delay-ms:2000}")
+    private long retryDelayMs;
+
+    private volatile BsonDocument resumeToken;
+    private volatile BsonTimestamp startAt;
+    private volatile boolean running;
+    private Thread tailer;
+
+    public StubSyncService(MongoTemplate mongoTemplate, StubService stubService,
+                           GraphQLStubService graphQLStubService, SoapStubService soapStubService,
+                           StubWriteBehindService writeBehind, StubRehydrationService rehydrationService) {
+        this.mongoTemplate = mongoTemplate;
+        this.stubService = stubService;
+        this.graphQLStubService = graphQLStubService;
+        this.soapStubService = soapStubService;
+        this.writeBehind = writeBehind;
+        this.rehydrationService = rehydrationService;
+    }
+
+    /**
+     * Notes the cluster time before stubs are loaded, so that changes made while loading
+     * are replayed once {@link #start()} is called.
+     */
+    public void markStart() {
+        if (enabled) {
+            startAt = clusterTime();
+        }
+    }
+
+    public void start() {
+        if (!enabled || tailer != null) {
+            return;
+        }
+        running = true;
+        tailer = new Thread(this::tail, "stub-sync");
+        tailer.setDaemon(true);
+        tailer.start();
+        log.info("Tailing stub changes from MongoDB");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (tailer != null) {
+            tailer.interrupt();
+        }
+    }
+
+    private void tail() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openStream()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null && change.getOperationType() == OperationType.INVALIDATE) {
+                        // The stream ends here and can only be started afresh
+                        reloadAll("the change stream was invalidated");
+                        break;
+                    }
+                    if (change != null) {
+                        applySafely(change);
+                    }
+                    // Also advances while idle, so a resume does not rescan unrelated oplog entries
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    log.error("Stub sync needs MongoDB to run as a replica set; stopping sync");
+                    return;
+                }
+                if (e.getErrorCode() == HISTORY_LOST) {
+                    reloadAll("the change stream can no longer be resumed");
+                } else {
+                    pause(e);
+                }
+            } catch (RuntimeException e) {
+                pause(e);
+            }
+        }
+    }
+
+    private void applySafely(ChangeStreamDocument<Document> change) {
+        try {
+            apply(change);
+        } catch (MongoException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Skip it rather than stall the stream on a change that can never be applied
+            log.error("Failed to apply {} of a stub in {}: {}", change.getOperationType().getValue(),
+                change.getNamespace() != null ? change.getNamespace().getCollectionName() : "?", e.getMessage(), e);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openStream() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+            .watch(List.of(Aggregates.match(Filters.and(
+                Filters.in("ns.coll", COLLECTIONS),
+                // Hit counter flushes touch every used stub but change nothing WireMock serves
+                Filters.nor(Filters.and(
+                    Filters.eq("operationType", "update"),
+                    Filters.exists("updateDescription.updatedFields.hitCount")))))))
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        } else if (startAt != null) {
+            stream = stream.startAtOperationTime(startAt);
+        }
+        return stream.cursor();
+    }
+
+    private void apply(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document document = change.getFullDocument();
+                // Null when the document was deleted before the lookup; the delete follows
+                if (document != null) {
+                    upsert(change.getNamespace().getCollectionName(), document);
+                }
+            }
+            case DELETE -> delete(change.getNamespace().getCollectionName(), idOf(change.getDocumentKey()));
+            case DROP, DROP_DATABASE, RENAME ->
+                reloadAll("a stub collection was " + change.getOperationType().getValue());
+            default -> {
+                // Not a stub change
+            }
+        }
+    }
+
+    private void upsert(String collection, Document document) {
+        switch (collection) {
+            case "stubs" -> {
+                Stub stub = mongoTemplate.getConverter().read(Stub.class, document);
+                // A newer local edit is still on its way to MongoDB
+                if (writeBehind.pending(stub.getId()) == null) {
+                    stubService.registerMapping(stub);
+                }
+            }
+            case "graphql_stubs" -> graphQLStubService.registerMapping(
+                mongoTemplate.getConverter().read(GraphQLStub.class, document));
+            case "soap_stubs" -> soapStubService.registerMapping(
+                mongoTemplate.getConverter().read(SoapStub.class, document));
+            default -> {
+                // Filtered out by the stream's $match
+            }
+        }
+    }
+
+    private void delete(String collection, String id) {
+        switch (collection) {
+            case "stubs" -> {
+                if (writeBehind.pending(id) == null) {
+                    stubService.removeMapping(id);
+                }
+            }
+            case "graphql_stubs" -> graphQLStubService.removeMapping(id);
+            case "soap_stubs" -> soapStubService.removeMapping(id);
+            default -> {
+                // Filtered out by the stream's $match
+            }
+        }
+    }
+
+    private void reloadAll(String reason) {
+        log.warn("Reloading all stubs because {}", reason);
+        resumeToken = null;
+        startAt = clusterTime();
+        rehydrationService.reload();
+    }
+
+    /** The current cluster time, or null to start from whenever the stream is opened. */
+    private BsonTimestamp clusterTime() {
+        try {
+            Object operationTime = mongoTemplate.getDb().runCommand(new Document("hello", 1)).get("operationTime");
+            return operationTime instanceof BsonTimestamp ? (BsonTimestamp) operationTime : null;
+        } catch (MongoException e) {
+            log.warn("Could not read the MongoDB cluster time: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void pause(RuntimeException e) {
+        if (!running) {
+            return;
+        }
+        log.warn("Stub change stream interrupted, resuming in {} ms: {}", retryDelayMs, e.getMessage());
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+}
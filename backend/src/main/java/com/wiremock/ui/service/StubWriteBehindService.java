@@ -0,0 +1,285 @@
+package com.wiremock.ui.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wiremock.ui.model.Stub;
+import com.wiremock.ui.repository.StubRepository;
+import com.wiremock.ui.service.StubOutbox.Entry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for stub mutations, enabled with
+ * {@code wiremock.write-behind.enabled}. Callers apply a mutation to WireMock, record it
+ * here and return; a single writer thread commits queued mutations to the stub store in
+ * batches, so concurrent edits share round trips instead of each paying one.
+ * Mutations are recorded in a {@link StubOutbox} first, and anything left in it after a
+ * crash is committed before stubs are loaded on the next start.
+ *
+ * <p>Until a mutation is committed, {@link #pending(String)} is the source of truth for
+ * that stub; list queries read MongoDB and catch up once the writer does.
+ */
+@Slf4j
+@Service
+public class StubWriteBehindService {
+
+    /** How far a mutation must get before the API call returns. */
+    public enum Ack {
+        /** Written to the outbox, without waiting for the disk. */
+        MEMORY,
+        /** Forced to disk in the outbox, so it survives a crash. */
+        JOURNALED;
+
+        /** Parses an {@code ack} request parameter; null when absent. */
+        public static Ack parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown ack level '" + value + "', expected memory or journaled");
+            }
+        }
+    }
+
+    private final StubRepository stubRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${wiremock.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wiremock.write-behind.dir:${wiremock.server.root-dir}/outbox}")
+    private String directory;
+
+    @Value("${wiremock.write-behind.default-ack:journaled}")
+    private String defaultAck;
+
+    @Value("${wiremock.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${wiremock.write-behind.segment-size-mb:16}")
+    private int segmentSizeMb;
+
+    @Value("${wiremock.write-behind.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    private StubOutbox outbox;
+    // In sequence order: appending to the outbox and queueing happen under recordLock
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Object recordLock = new Object();
+    // Latest uncommitted mutation per stub id
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+    private final Object commitMonitor = new Object();
+    private volatile long queuedSeq;
+    private volatile long committedSeq;
+    private Ack defaultAckLevel;
+    private Thread writer;
+    private volatile boolean running;
+
+    public StubWriteBehindService(StubRepository stubRepository, ObjectMapper objectMapper) {
+        this.stubRepository = stubRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        defaultAckLevel = Ack.parse(defaultAck);
+        if (defaultAckLevel == null) {
+            defaultAckLevel = Ack.JOURNALED;
+        }
+        outbox = new StubOutbox(Paths.get(directory), segmentSizeMb * 1024L * 1024L, objectMapper);
+        List<Entry> recovered = outbox.open();
+        if (!recovered.isEmpty()) {
+            log.info("Found {} stub mutations in the outbox not yet committed to MongoDB", recovered.size());
+            recovered.forEach(this::enqueue);
+        }
+        // Also started with write-behind off, to commit what a previous run left behind
+        if (enabled || !recovered.isEmpty()) {
+            running = true;
+            writer = new Thread(this::runWriter, "stub-outbox-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+        if (enabled) {
+            log.info("Stub write-behind enabled, default ack level {}", defaultAckLevel);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                // The writer commits what is queued before it stops
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!queue.isEmpty()) {
+                // Still in the outbox; committed on the next start
+                log.warn("Stopped with {} stub mutations not committed to MongoDB", queue.size());
+            }
+        }
+        outbox.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Records a created or updated stub, carrying its complete state. */
+    public void save(Stub stub, Ack ack) {
+        record(stub.getId(), stub, ack);
+    }
+
+    public void delete(String id, Ack ack) {
+        record(id, null, ack);
+    }
+
+    /**
+     * The latest uncommitted mutation of a stub, or null if MongoDB is up to date.
+     * For a save, the entry holds a copy of the stub that callers may modify.
+     */
+    public Entry pending(String id) {
+        Entry entry = pending.get(id);
+        if (entry == null || entry.isDelete()) {
+            return entry;
+        }
+        return new Entry(entry.seq(), entry.id(), objectMapper.convertValue(entry.stub(), Stub.class));
+    }
+
+    /** Whether a mutation of the stub is still waiting to be committed. */
+    public boolean isPending(String id) {
+        return pending.containsKey(id);
+    }
+
+    /** Mutations waiting to be committed. */
+    public int backlog() {
+        return queue.size();
+    }
+
+    /**
+     * Waits until everything queued so far is committed. Run before stubs are loaded
+     * from MongoDB, so mutations recovered from the outbox are part of what is loaded.
+     */
+    public boolean awaitCommitted(long timeoutMs) throws InterruptedException {
+        long target = queuedSeq;
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (commitMonitor) {
+            while (committedSeq < target && writer != null && writer.isAlive()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                commitMonitor.wait(remaining);
+            }
+        }
+        return committedSeq >= target;
+    }
+
+    private void record(String id, Stub stub, Ack ack) {
+        long seq;
+        synchronized (recordLock) {
+            seq = outbox.append(id, stub);
+            enqueue(new Entry(seq, id, stub));
+        }
+        if ((ack != null ? ack : defaultAckLevel) == Ack.JOURNALED) {
+            outbox.sync(seq);
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        pending.put(entry.id(), entry);
+        queue.add(entry);
+        queuedSeq = entry.seq();
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>();
+        // Keeps going after close() until the queue is empty
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever queued up during the previous bulk write goes out together
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!commitWithRetry(batch)) {
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Retries until the batch is committed; gives up only once shutting down. */
+    private boolean commitWithRetry(List<Entry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                commit(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.warn("Failed to commit {} stub mutations during shutdown: {}", batch.size(), e.getMessage());
+                    return false;
+                }
+                log.warn("Failed to commit {} stub mutations, retrying in {} ms: {}",
+                    batch.size(), retryDelayMs, e.getMessage());
+                Thread.sleep(retryDelayMs);
+            }
+        }
+    }
+
+    private void commit(List<Entry> batch) {
+        // Every entry carries the stub's full state, so only the last one per stub matters
+        Map<String, Entry> latest = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            latest.remove(entry.id());
+            latest.put(entry.id(), entry);
+        }
+        // One entry per stub, so saves and deletes cannot conflict and go out in any order
+        List<Stub> saves = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (Entry entry : latest.values()) {
+            if (entry.isDelete()) {
+                deletes.add(entry.id());
+            } else {
+                saves.add(entry.stub());
+            }
+        }
+        stubRepository.saveAll(saves);
+        stubRepository.deleteAllById(deletes);
+
+        long lastSeq = batch.get(batch.size() - 1).seq();
+        for (Entry entry : latest.values()) {
+            // A newer mutation of the same stub may have been queued meanwhile
+            pending.remove(entry.id(), entry);
+        }
+        // Only the writer commits, in queue order, so everything up to lastSeq is in MongoDB
+        outbox.committed(lastSeq);
+        synchronized (commitMonitor) {
+            committedSeq = lastSeq;
+            commitMonitor.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.wiremock.ui.util;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/** Reads the encoding-related headers of WireMock requests and responses. */
+public final class HttpEncodings {
+    private HttpEncodings() {
+    }
+
+    /**
+     * Whether a body is gzip encoded, going by its {@code Content-Encoding} rather than its
+     * first bytes: an identity body may well start with the gzip magic number. Bodies with
+     * further codings on top of gzip are not, since gunzipping alone would not decode them.
+     */
+    public static boolean isGzipEncoded(HttpHeaders headers) {
+        if (headers == null) {
+            return false;
+        }
+        HttpHeader encoding = headers.getHeader("Content-Encoding");
+        if (!encoding.isPresent()) {
+            return false;
+        }
+        List<String> codings = new ArrayList<>();
+        for (String value : encoding.values()) {
+            for (String coding : value.split(",")) {
+                String name = coding.trim().toLowerCase(Locale.ROOT);
+                if (!name.isEmpty() && !name.equals("identity")) {
+                    codings.add(name);
+                }
+            }
+        }
+        return codings.size() == 1 && (codings.get(0).equals("gzip") || codings.get(0).equals("x-gzip"));
+    }
+
+    /** Whether a {@code Vary} header already names the request header, or varies on everything. */
+    public static boolean variesOn(HttpHeader vary, String requestHeader) {
+        if (vary == null || !vary.isPresent()) {
+            return false;
+        }
+        for (String value : vary.values()) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.equals("*") || trimmed.equalsIgnoreCase(requestHeader)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { Clock, Search, RefreshCw, Download, Trash2, Code, X, Filter, ArrowUp, ArrowDown } from 'lucide-react';
-import { getRequests, clearRequests } from '../services/api';
+import { getRequests, clearRequests, subscribeToRequests } from '../services/api';
 import { RequestLog } from '../types/request';
 
 const RequestJournal: React.FC = () => {
@@ -16,6 +16,10 @@ const RequestJournal: React.FC = () => {
 
   useEffect(() => {
     fetchRequests();
+    // New requests arrive over the live stream instead of re-fetching the whole list
+    return subscribeToRequests((request) => {
+      setRequests((current) => [request, ...current.filter((r) => r.id !== request.id)].slice(0, 1000));
+    });
   }, []);
 
   const fetchRequests = async () => {
@@ -82,7 +82,18 @@ export const getRequests = async (): Promise<RequestLog[]> => {
     const error = await response.text();
     throw new Error(error || 'Failed to fetch requests');
   }
-  return response.json();
+  // The endpoint is paged; the journal view shows the newest page
+  const page = await response.json();
+  return page.items;
+};
+
+// Pushes each newly served request to the callback; call the returned function to stop
+export const subscribeToRequests = (onRequest: (request: RequestLog) => void): (() => void) => {
+  const source = new EventSource(`${API_BASE}/requests/stream`);
+  source.addEventListener('request', (event) => {
+    onRequest(JSON.parse((event as MessageEvent).data));
+  });
+  return () => source.close();
 };
 
 export const clearRequests = async (): Promise<void> => {
@@ -130,6 +141,38 @@ export const resetScenarios = async (): Promise<void> => {
   }
 };
 
+// Body file API
+export interface BodyFile {
+  id: string;
+  bodyFileName: string;
+  size: number;
+  createdAt: string;
+}
+
+export const uploadBodyFile = async (file: File): Promise<BodyFile> => {
+  const response = await fetch(`${API_BASE}/body-files`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/octet-stream',
+    },
+    body: file,
+  });
+  if (!response.ok) {
+    const error = await response.text();
+    throw new Error(error || 'Failed to upload body file');
+  }
+  return response.json();
+};
+
+export const getBodyFiles = async (): Promise<BodyFile[]> => {
+  const response = await fetch(`${API_BASE}/body-files`);
+  if (!response.ok) {
+    const error = await response.text();
+    throw new Error(error || 'Failed to fetch body files');
+  }
+  return response.json();
+};
+
 // Import/Export API
 export const importOpenApi = async (spec: string): Promise<Stub[]> => {
   const response = await fetch(`${API_BASE}/import/openapi`, {
@@ -5,6 +5,33 @@ export type RecordingStatus = 'NeverStarted' | 'Recording' | 'Stopped' | 'Playin
 export interface RecordingState {
   status: RecordingStatus;
   targetUrl?: string;
+  recordingId?: string;
+  recordedCount?: number;
+  storedCount?: number;
+  duplicateCount?: number;
+}
+
+export interface RecordingSession {
+  id: string;
+  name: string;
+  targetUrl: string;
+  urlPattern: string;
+  headers: Record<string, string>;
+  status: RecordingStatus;
+  startedAt: string;
+  stoppedAt?: string | null;
+  recordedCount: number;
+  storedCount: number;
+  duplicateCount: number;
+  bodyFileCount: number;
+  failedCount: number;
+}
+
+export interface RecordingSessionRequest {
+  name?: string;
+  targetUrl: string;
+  urlPattern?: string;
+  headers?: Record<string, string>;
 }
 
 const BASE_URL = 'http://localhost:8080/api/recording';
@@ -16,8 +43,9 @@ export const recordingApi = {
     });
   },
 
-  stopRecording: async (): Promise<void> => {
-    await axios.post(`${BASE_URL}/stop`);
+  stopRecording: async (): Promise<RecordingState> => {
+    const response = await axios.post(`${BASE_URL}/stop`);
+    return response.data;
   },
 
   getStatus: async (): Promise<RecordingState> => {
@@ -25,11 +53,37 @@ export const recordingApi = {
     return response.data;
   },
 
-  startPlayback: async (): Promise<void> => {
-    await axios.post(`${BASE_URL}/playback/start`);
+  startPlayback: async (recordingId?: string): Promise<void> => {
+    await axios.post(`${BASE_URL}/playback/start`, null, {
+      params: recordingId ? { recordingId } : undefined
+    });
   },
 
   stopPlayback: async (): Promise<void> => {
     await axios.post(`${BASE_URL}/playback/stop`);
+  },
+
+  getSessions: async (): Promise<RecordingSession[]> => {
+    const response = await axios.get(`${BASE_URL}/sessions`);
+    return response.data;
+  },
+
+  startSession: async (request: RecordingSessionRequest): Promise<RecordingSession> => {
+    const response = await axios.post(`${BASE_URL}/sessions`, request);
+    return response.data;
+  },
+
+  getSession: async (id: string): Promise<RecordingSession> => {
+    const response = await axios.get(`${BASE_URL}/sessions/${id}`);
+    return response.data;
+  },
+
+  stopSession: async (id: string): Promise<RecordingSession> => {
+    const response = await axios.post(`${BASE_URL}/sessions/${id}/stop`);
+    return response.data;
+  },
+
+  removeSession: async (id: string): Promise<void> => {
+    await axios.delete(`${BASE_URL}/sessions/${id}`);
   }
-}; 
\ No newline at end of file
+};
@@ -0,0 +1,93 @@
+import axios from 'axios';
+
+export type ReplaySource = 'journal' | 'recording';
+export type ReplayStatus = 'RUNNING' | 'COMPLETED' | 'CANCELLED' | 'FAILED';
+
+export interface ReplayJournalFilter {
+  url?: string;
+  method?: string;
+  status?: number;
+  statusClass?: number;
+  matched?: boolean;
+  stubId?: string;
+  from?: number;
+  to?: number;
+}
+
+export interface ReplayOptions {
+  targetUrl?: string;
+  timeCompression?: number;
+  ratePerSecond?: number;
+  concurrency?: number;
+  repeat?: number;
+  timeoutMs?: number;
+}
+
+export interface ReplayRunRequest extends ReplayOptions {
+  source: ReplaySource;
+  journal?: ReplayJournalFilter;
+  recordingId?: string;
+}
+
+export interface ReplayLatency {
+  mean: number;
+  max: number;
+  p50: number;
+  p90: number;
+  p99: number;
+  p999: number;
+}
+
+export interface ReplayReport {
+  id: string;
+  source: string;
+  targetUrl: string;
+  status: ReplayStatus;
+  error?: string | null;
+  startedAt: string;
+  finishedAt?: string | null;
+  plannedRequests: number;
+  sent: number;
+  completed: number;
+  failed: number;
+  inFlight: number;
+  statusClasses: Record<string, number>;
+  bytesReceived: number;
+  elapsedSeconds: number;
+  throughputPerSecond: number;
+  latency: ReplayLatency;
+  serviceTime: ReplayLatency;
+}
+
+const BASE_URL = 'http://localhost:8080/api/replay/runs';
+
+export const replayApi = {
+  getRuns: async (): Promise<ReplayReport[]> => {
+    const response = await axios.get(BASE_URL);
+    return response.data;
+  },
+
+  startRun: async (request: ReplayRunRequest): Promise<ReplayReport> => {
+    const response = await axios.post(BASE_URL, request);
+    return response.data;
+  },
+
+  // One request per line; options go in the query string
+  uploadRun: async (ndjson: Blob, options: ReplayOptions = {}): Promise<ReplayReport> => {
+    const response = await axios.post(BASE_URL, ndjson, {
+      headers: { 'Content-Type': 'application/x-ndjson' },
+      params: options
+    });
+    return response.data;
+  },
+
+  getRun: async (id: string): Promise<ReplayReport> => {
+    const response = await axios.get(`${BASE_URL}/${id}`);
+    return response.data;
+  },
+
+  cancelRun: async (id: string): Promise<ReplayReport> => {
+    const response = await axios.post(`${BASE_URL}/${id}/cancel`);
+    return response.data;
+  }
+};
@@ -43,7 +43,12 @@ export interface ResponseDefinition {
   body?: string;
   jsonBody?: any;
   base64Body?: string;
+  bodyFileName?: string;
   fixedDelayMilliseconds?: number;
+  delayDistribution?:
+    | { type: 'uniform'; lower: number; upper: number }
+    | { type: 'lognormal'; median: number; sigma: number }
+    | { type: 'percentile'; percentiles: Record<string, number>; min?: number };
   chunkedDribbleDelay?: {
     numberOfChunks: number;
     totalDuration: number;
@@ -68,7 +73,10 @@ export interface Stub {
   newScenarioState?: string;
   persistent?: boolean;
   enabled?: boolean;
+  recordingId?: string | null;
   metadata?: Record<string, any> | string;
+  hitCount?: number;
+  lastHitAt?: string | null;
 }
 
 export const defaultStub: Stub = {